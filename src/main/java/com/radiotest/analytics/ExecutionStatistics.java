@@ -0,0 +1,228 @@
+package com.radiotest.analytics;
+
+import com.radiotest.model.TestExecution;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics over a set of test executions, gathered in a single traversal:
+ * running statistics for power, frequency, EVM, ACPR and duration, quantile sketches
+ * for p50/p90/p99, plus the status and technology distributions.
+ * Mergeable and serializable, so it also serves as the payload of time-bucketed rollups.
+ */
+public class ExecutionStatistics {
+    private static final byte SERIAL_VERSION = 1;
+
+    private long count;
+    private long totalDurationMs;
+    private RunningStatistics power = new RunningStatistics();
+    private RunningStatistics frequency = new RunningStatistics();
+    private RunningStatistics evm = new RunningStatistics();
+    private RunningStatistics acpr = new RunningStatistics();
+    private RunningStatistics duration = new RunningStatistics();
+    private MetricSketches sketches = new MetricSketches();
+    private long minDurationMs = Long.MAX_VALUE;
+    private long maxDurationMs = Long.MIN_VALUE;
+    private final Map<String, Long> statusDistribution = new HashMap<>();
+    private final Map<String, Long> technologyDistribution = new HashMap<>();
+
+    public static ExecutionStatistics of(List<TestExecution> executions) {
+        ExecutionStatistics statistics = new ExecutionStatistics();
+        for (TestExecution execution : executions) {
+            statistics.add(execution);
+        }
+        return statistics;
+    }
+
+    public void add(TestExecution execution) {
+        add(execution.getTechnology(), execution.getStatus(), execution.getPowerLevel(), execution.getFrequencyHz(),
+                execution.getEvm(), execution.getAcpr(), execution.getDurationMs());
+    }
+
+    public void add(String technology, String status, Double powerLevel, Double frequencyHz,
+                    Double evmValue, Double acprValue, Long durationMs) {
+        count++;
+        if (powerLevel != null) {
+            power.add(powerLevel);
+        }
+        if (frequencyHz != null) {
+            frequency.add(frequencyHz);
+        }
+        if (evmValue != null) {
+            evm.add(evmValue);
+        }
+        if (acprValue != null) {
+            acpr.add(acprValue);
+        }
+        if (durationMs != null) {
+            duration.add(durationMs);
+            totalDurationMs += durationMs;
+            minDurationMs = Math.min(minDurationMs, durationMs);
+            maxDurationMs = Math.max(maxDurationMs, durationMs);
+        }
+        sketches.add(powerLevel, evmValue, acprValue, durationMs);
+        if (status != null) {
+            statusDistribution.merge(status, 1L, Long::sum);
+        }
+        if (technology != null) {
+            technologyDistribution.merge(technology, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Fold statistics over another set of executions (e.g. another technology or time window) into these
+     */
+    public void merge(ExecutionStatistics other) {
+        count += other.count;
+        totalDurationMs += other.totalDurationMs;
+        power.merge(other.power);
+        frequency.merge(other.frequency);
+        evm.merge(other.evm);
+        acpr.merge(other.acpr);
+        duration.merge(other.duration);
+        minDurationMs = Math.min(minDurationMs, other.minDurationMs);
+        maxDurationMs = Math.max(maxDurationMs, other.maxDurationMs);
+        sketches.merge(other.sketches);
+        other.statusDistribution.forEach((status, n) -> statusDistribution.merge(status, n, Long::sum));
+        other.technologyDistribution.forEach((technology, n) -> technologyDistribution.merge(technology, n, Long::sum));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalDurationMs() {
+        return totalDurationMs;
+    }
+
+    public long getStatusCount(String status) {
+        return statusDistribution.getOrDefault(status, 0L);
+    }
+
+    public RunningStatistics getPower() {
+        return power;
+    }
+
+    public RunningStatistics getFrequency() {
+        return frequency;
+    }
+
+    public RunningStatistics getEvm() {
+        return evm;
+    }
+
+    public RunningStatistics getAcpr() {
+        return acpr;
+    }
+
+    public RunningStatistics getDuration() {
+        return duration;
+    }
+
+    public MetricSketches getSketches() {
+        return sketches;
+    }
+
+    /**
+     * Statistics map in the format used by reports (metricMean, metricStdDev, metricP50, ..., distributions)
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new HashMap<>();
+        if (!power.isEmpty()) {
+            stats.put("powerLevelMean", power.getMean());
+            stats.put("powerLevelStdDev", power.getStdDev());
+            stats.put("powerLevelMin", power.getMin());
+            stats.put("powerLevelMax", power.getMax());
+        }
+        if (!frequency.isEmpty()) {
+            stats.put("frequencyMean", frequency.getMean());
+            stats.put("frequencyStdDev", frequency.getStdDev());
+        }
+        if (!evm.isEmpty()) {
+            stats.put("evmMean", evm.getMean());
+            stats.put("evmStdDev", evm.getStdDev());
+            stats.put("evmMax", evm.getMax());
+        }
+        if (!acpr.isEmpty()) {
+            stats.put("acprMean", acpr.getMean());
+            stats.put("acprStdDev", acpr.getStdDev());
+            stats.put("acprMax", acpr.getMax());
+        }
+        if (!duration.isEmpty()) {
+            stats.put("durationMean", duration.getMean());
+            stats.put("durationStdDev", duration.getStdDev());
+            stats.put("durationMin", minDurationMs);
+            stats.put("durationMax", maxDurationMs);
+        }
+        sketches.putPercentiles(stats);
+        stats.put("statusDistribution", new HashMap<>(statusDistribution));
+        stats.put("technologyDistribution", new HashMap<>(technologyDistribution));
+        return stats;
+    }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(SERIAL_VERSION);
+            out.writeLong(count);
+            out.writeLong(totalDurationMs);
+            out.writeLong(minDurationMs);
+            out.writeLong(maxDurationMs);
+            for (RunningStatistics metric : new RunningStatistics[]{power, frequency, evm, acpr, duration}) {
+                metric.writeTo(out);
+            }
+            sketches.writeTo(out);
+            writeDistribution(out, statusDistribution);
+            writeDistribution(out, technologyDistribution);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ExecutionStatistics fromBytes(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            byte version = in.readByte();
+            if (version != SERIAL_VERSION) {
+                throw new IllegalArgumentException("Unsupported execution statistics version: " + version);
+            }
+            ExecutionStatistics statistics = new ExecutionStatistics();
+            statistics.count = in.readLong();
+            statistics.totalDurationMs = in.readLong();
+            statistics.minDurationMs = in.readLong();
+            statistics.maxDurationMs = in.readLong();
+            statistics.power = RunningStatistics.readFrom(in);
+            statistics.frequency = RunningStatistics.readFrom(in);
+            statistics.evm = RunningStatistics.readFrom(in);
+            statistics.acpr = RunningStatistics.readFrom(in);
+            statistics.duration = RunningStatistics.readFrom(in);
+            statistics.sketches = MetricSketches.readFrom(in);
+            readDistribution(in, statistics.statusDistribution);
+            readDistribution(in, statistics.technologyDistribution);
+            return statistics;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeDistribution(DataOutput out, Map<String, Long> distribution) throws IOException {
+        out.writeInt(distribution.size());
+        for (Map.Entry<String, Long> entry : distribution.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    private static void readDistribution(DataInput in, Map<String, Long> distribution) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            distribution.put(in.readUTF(), in.readLong());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.radiotest.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Quantile sketches for the per-execution metrics (power, EVM, ACPR, duration).
+ * Mergeable, so sketches kept per test case, technology or time window can be combined
+ * into percentiles for any grouping without revisiting executions. Not thread-safe.
+ */
+public class MetricSketches {
+    public static final double[] REPORTED_QUANTILES = {0.5, 0.9, 0.99};
+    private static final String[] QUANTILE_SUFFIXES = {"P50", "P90", "P99"};
+
+    private final QuantileSketch power;
+    private final QuantileSketch evm;
+    private final QuantileSketch acpr;
+    private final QuantileSketch duration;
+
+    public MetricSketches() {
+        this(new QuantileSketch(), new QuantileSketch(), new QuantileSketch(), new QuantileSketch());
+    }
+
+    private MetricSketches(QuantileSketch power, QuantileSketch evm, QuantileSketch acpr, QuantileSketch duration) {
+        this.power = power;
+        this.evm = evm;
+        this.acpr = acpr;
+        this.duration = duration;
+    }
+
+    public void add(Double powerLevel, Double evmValue, Double acprValue, Long durationMs) {
+        if (powerLevel != null) {
+            power.add(powerLevel);
+        }
+        if (evmValue != null) {
+            evm.add(evmValue);
+        }
+        if (acprValue != null) {
+            acpr.add(acprValue);
+        }
+        if (durationMs != null) {
+            duration.add(durationMs);
+        }
+    }
+
+    public void merge(MetricSketches other) {
+        power.merge(other.power);
+        evm.merge(other.evm);
+        acpr.merge(other.acpr);
+        duration.merge(other.duration);
+    }
+
+    public QuantileSketch getPower() {
+        return power;
+    }
+
+    public QuantileSketch getEvm() {
+        return evm;
+    }
+
+    public QuantileSketch getAcpr() {
+        return acpr;
+    }
+
+    public QuantileSketch getDuration() {
+        return duration;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        power.writeTo(out);
+        evm.writeTo(out);
+        acpr.writeTo(out);
+        duration.writeTo(out);
+    }
+
+    public static MetricSketches readFrom(DataInput in) throws IOException {
+        return new MetricSketches(QuantileSketch.readFrom(in), QuantileSketch.readFrom(in),
+                QuantileSketch.readFrom(in), QuantileSketch.readFrom(in));
+    }
+
+    /**
+     * Add p50/p90/p99 entries (e.g. powerLevelP50, evmP99, durationP90) for every non-empty metric
+     */
+    public void putPercentiles(Map<String, Object> stats) {
+        putPercentiles(stats, "powerLevel", power);
+        putPercentiles(stats, "evm", evm);
+        putPercentiles(stats, "acpr", acpr);
+        putPercentiles(stats, "duration", duration);
+    }
+
+    private static void putPercentiles(Map<String, Object> stats, String prefix, QuantileSketch sketch) {
+        if (sketch.isEmpty()) {
+            return;
+        }
+        double[] values = sketch.getQuantiles(REPORTED_QUANTILES);
+        for (int i = 0; i < values.length; i++) {
+            stats.put(prefix + QUANTILE_SUFFIXES[i], values[i]);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.radiotest.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Streaming quantile sketch (KLL, Karnin-Lang-Liberty 2016).
+ * Samples are kept in a hierarchy of compactors; when a level fills up it is sorted and every
+ * other sample is promoted to the next level with double weight. Memory stays O(k log(n/k)) and
+ * the rank error is roughly 1.7/k (about 1% for the default k = 200). The sketch is exact until
+ * the first compaction, i.e. for the first few hundred samples.
+ * Sketches with the same k can be merged. Not thread-safe.
+ */
+public class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = new double[0][];
+    private int[] levelSizes = new int[0];
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        grow();
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        retained++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Fold another sketch into this one
+     */
+    public void merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with different k (" + k + " vs " + other.k + ")");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.levelSizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        retained += other.retained;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Approximate value at the given quantile (0.0 to 1.0), or NaN if the sketch is empty
+     */
+    public double getQuantile(double quantile) {
+        return getQuantiles(quantile)[0];
+    }
+
+    /**
+     * Approximate values at each of the given quantiles, computed from a single sort
+     */
+    public double[] getQuantiles(double... quantiles) {
+        double[] result = new double[quantiles.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        sortedSamples(values, weights);
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        for (int q = 0; q < quantiles.length; q++) {
+            if (quantiles[q] <= 0.0) {
+                result[q] = min;
+                continue;
+            }
+            if (quantiles[q] >= 1.0) {
+                result[q] = max;
+                continue;
+            }
+            double targetRank = quantiles[q] * totalWeight;
+            long cumulative = 0;
+            result[q] = max;
+            for (int i = 0; i < values.length; i++) {
+                cumulative += weights[i];
+                if (cumulative > targetRank) {
+                    result[q] = values[i];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Number of samples currently held (bounded regardless of how many were added)
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    /**
+     * Write the retained samples and level structure (not just summary values), so a restored sketch stays mergeable
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(levels.length);
+        for (int h = 0; h < levels.length; h++) {
+            out.writeInt(levelSizes[h]);
+            for (int i = 0; i < levelSizes[h]; i++) {
+                out.writeDouble(levels[h][i]);
+            }
+        }
+    }
+
+    public static QuantileSketch readFrom(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch(in.readInt());
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int height = in.readInt();
+        while (sketch.levels.length < height) {
+            sketch.grow();
+        }
+        for (int h = 0; h < height; h++) {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.append(h, in.readDouble());
+            }
+            sketch.retained += size;
+        }
+        return sketch;
+    }
+
+    /**
+     * Fill values/weights with all retained samples in ascending order (sorted levels merged pairwise)
+     */
+    private void sortedSamples(double[] values, long[] weights) {
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            int size = levelSizes[h];
+            if (size == 0) {
+                continue;
+            }
+            double[] level = Arrays.copyOf(levels[h], size);
+            Arrays.sort(level);
+            long weight = 1L << h;
+            // Merge the sorted level into the sorted prefix [0, n), working backwards in place
+            int i = n - 1;
+            int j = size - 1;
+            for (int out = n + size - 1; j >= 0; out--) {
+                if (i >= 0 && values[i] > level[j]) {
+                    values[out] = values[i];
+                    weights[out] = weights[i];
+                    i--;
+                } else {
+                    values[out] = level[j];
+                    weights[out] = weight;
+                    j--;
+                }
+            }
+            n += size;
+        }
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - level - 1;
+        return (int) Math.ceil(Math.pow(CAPACITY_DECAY, depth) * k) + 1;
+    }
+
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        levelSizes = Arrays.copyOf(levelSizes, height);
+        levels[height - 1] = new double[8];
+        maxRetained = 0;
+        for (int h = 0; h < height; h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    private void append(int level, double value) {
+        if (levelSizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][levelSizes[level]++] = value;
+    }
+
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (levelSizes[h] >= capacity(h)) {
+                if (h + 1 >= levels.length) {
+                    grow();
+                }
+                retained -= compact(h);
+                if (retained < maxRetained) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sort a level and promote every other sample (random offset) to the next level.
+     * An odd sample out stays behind. Returns the number of samples removed from the sketch.
+     */
+    private int compact(int level) {
+        double[] values = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(values, 0, size);
+        int pairs = size / 2;
+        boolean odd = size % 2 == 1;
+        double leftover = odd ? values[size - 1] : 0.0;
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+        for (int i = 0; i < pairs; i++) {
+            append(level + 1, values[2 * i + offset]);
+        }
+        levelSizes[level] = 0;
+        if (odd) {
+            append(level, leftover);
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,112 @@
+package com.radiotest.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Single-pass accumulator for count, mean, variance (Welford's algorithm), min and max.
+ * Numerically stable without a second pass over the data, allocation-free per sample,
+ * and mergeable (Chan et al.) so partial results from batches or partitions can be combined.
+ * Not thread-safe.
+ */
+public class RunningStatistics {
+    private long count;
+    private double mean;
+    private double m2; // sum of squared deviations from the running mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Fold another accumulator into this one
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long combined = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / combined;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / combined);
+        count = combined;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : 0.0;
+    }
+
+    /**
+     * Population variance; 0 for fewer than two samples
+     */
+    public double getVariance() {
+        return count < 2 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * Unbiased sample variance; 0 for fewer than two samples
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    public static RunningStatistics readFrom(DataInput in) throws IOException {
+        RunningStatistics statistics = new RunningStatistics();
+        statistics.count = in.readLong();
+        statistics.mean = in.readDouble();
+        statistics.m2 = in.readDouble();
+        statistics.min = in.readDouble();
+        statistics.max = in.readDouble();
+        return statistics;
+    }
+}
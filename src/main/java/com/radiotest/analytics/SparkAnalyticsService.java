@@ -44,7 +44,8 @@ public class SparkAnalyticsService {
                     .getOrCreate();
             sparkAvailable = true;
             log.info("Spark session initialized for analytics");
-        } catch (Exception e) {
+        } catch (Exception | LinkageError e) {
+            // On Java 17 without --add-opens Spark fails with IllegalAccessError rather than an exception
             log.warn("Spark initialization failed, will use standard analytics: {}", e.getMessage());
             this.sparkSession = null;
             sparkAvailable = false;
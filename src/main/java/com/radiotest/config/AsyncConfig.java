@@ -1,7 +1,10 @@
 package com.radiotest.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -9,14 +12,47 @@ import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@Slf4j
 public class AsyncConfig {
 
+    @Value("${radiotest.execution.mode:pool}")
+    private String executionMode;
+
+    @Value("${spring.task.execution.pool.core-size:5}")
+    private int corePoolSize;
+
+    @Value("${spring.task.execution.pool.max-size:10}")
+    private int maxPoolSize;
+
+    @Value("${spring.task.execution.pool.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Executor for @Async("testTaskExecutor").
+     * In "virtual" mode every test gets its own virtual thread: tests spend most of their time
+     * blocked on the instrument lease, instrument I/O and JPA, so thousands can be queued cheaply.
+     * Instrument access stays bounded by InstrumentLeaseScheduler (one lease per bench), which
+     * parks on a ReentrantLock and therefore does not pin carrier threads.
+     * Virtual threads need Java 21+; on older runtimes this falls back to the bounded pool.
+     */
     @Bean(name = "testTaskExecutor")
     public Executor testTaskExecutor() {
+        if ("virtual".equalsIgnoreCase(executionMode)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-executor-vt-");
+            try {
+                executor.setVirtualThreads(true);
+                log.info("Test executor running in virtual-thread-per-test mode");
+                return executor;
+            } catch (UnsupportedOperationException e) {
+                log.warn("Virtual threads are not supported on Java {}; using the platform thread pool",
+                        Runtime.version().feature());
+            }
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("test-executor-");
         executor.initialize();
         return executor;
@@ -33,4 +69,3 @@ public class AsyncConfig {
         return executor;
     }
 }
-
@@ -0,0 +1,29 @@
+package com.radiotest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instrument bench pool configuration (radiotest.instruments.*).
+ * Explicit benches take precedence; otherwise {@code simulatedBenches} generic simulated benches are created.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "radiotest.instruments")
+public class InstrumentPoolProperties {
+    private int simulatedBenches = 1;
+    private boolean shadowState = true; // skip instrument writes that would not change the last applied state
+    private List<Bench> benches = new ArrayList<>();
+
+    @Data
+    public static class Bench {
+        private String id;
+        private List<String> technologies = new ArrayList<>(); // 5G, LTE, W-CDMA, GSM
+        private Double minFrequencyHz;
+        private Double maxFrequencyHz;
+    }
+}
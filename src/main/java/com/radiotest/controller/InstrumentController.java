@@ -0,0 +1,41 @@
+package com.radiotest.controller;
+
+import com.radiotest.framework.MeasurementPipeline;
+import com.radiotest.instruments.InstrumentFactory;
+import com.radiotest.instruments.InstrumentLeaseScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/instruments")
+@RequiredArgsConstructor
+public class InstrumentController {
+    private final InstrumentLeaseScheduler leaseScheduler;
+    private final InstrumentFactory instrumentFactory;
+    private final MeasurementPipeline measurementPipeline;
+
+    @GetMapping("/leases")
+    public ResponseEntity<Map<String, Object>> getLeaseStatistics() {
+        return ResponseEntity.ok(leaseScheduler.getStatistics());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getInstrumentStatus() {
+        return ResponseEntity.ok(Map.of(
+                "SIGGEN", instrumentFactory.getConnectionStatus("SIGGEN"),
+                "SPECTRUM", instrumentFactory.getConnectionStatus("SPECTRUM")));
+    }
+
+    @GetMapping("/shadow-state")
+    public ResponseEntity<Map<String, Object>> getShadowStateStatistics() {
+        return ResponseEntity.ok(instrumentFactory.getShadowStateStatistics());
+    }
+
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineStatistics() {
+        return ResponseEntity.ok(measurementPipeline.getStatistics());
+    }
+}
@@ -1,21 +1,43 @@
 package com.radiotest.controller;
 
+import com.radiotest.ml.AnomalyDetector;
 import com.radiotest.ml.PredictionService;
+import com.radiotest.model.TestReport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/predictions")
 @RequiredArgsConstructor
 public class PredictionController {
+    private static final int MAX_ANOMALIES = 1000;
+
     private final PredictionService predictionService;
+    private final AnomalyDetector anomalyDetector;
 
+    /**
+     * mode=all (whole history, default), decayed (time-weighted) or window (lastExecutions and/or lastDays;
+     * implied when either is given)
+     */
     @GetMapping("/test-outcome/{testCaseId}")
     public ResponseEntity<PredictionService.PredictionResult> predictTestOutcome(
-            @PathVariable String testCaseId) {
+            @PathVariable String testCaseId,
+            @RequestParam(defaultValue = "all") String mode,
+            @RequestParam(required = false) Integer lastExecutions,
+            @RequestParam(required = false) Integer lastDays) {
+        if (lastExecutions != null || lastDays != null || "window".equalsIgnoreCase(mode)) {
+            return ResponseEntity.ok(predictionService.predictWindowedTestOutcome(testCaseId, lastExecutions, lastDays));
+        }
+        if ("decayed".equalsIgnoreCase(mode)) {
+            return ResponseEntity.ok(predictionService.predictDecayedTestOutcome(testCaseId));
+        }
+        if (!"all".equalsIgnoreCase(mode)) {
+            return ResponseEntity.badRequest().build();
+        }
         return ResponseEntity.ok(predictionService.predictTestOutcome(testCaseId));
     }
 
@@ -45,5 +67,55 @@ public class PredictionController {
         }
         return ResponseEntity.notFound().build();
     }
-}
 
+    @GetMapping("/statistics/{testCaseId}")
+    public ResponseEntity<Map<String, Object>> getStatistics(@PathVariable String testCaseId) {
+        Map<String, Object> statistics = predictionService.getStatistics(testCaseId);
+        if (statistics != null) {
+            return ResponseEntity.ok(statistics);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/percentiles/{testCaseId}")
+    public ResponseEntity<Map<String, Object>> getPercentiles(@PathVariable String testCaseId) {
+        Map<String, Object> percentiles = predictionService.getPercentiles(testCaseId);
+        if (percentiles != null) {
+            return ResponseEntity.ok(percentiles);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/percentiles/technology/{technology}")
+    public ResponseEntity<Map<String, Object>> getTechnologyPercentiles(@PathVariable String technology) {
+        Map<String, Object> percentiles = predictionService.getTechnologyPercentiles(technology);
+        if (percentiles != null) {
+            return ResponseEntity.ok(percentiles);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Anomalies flagged as executions completed, newest first (optionally for one test case)
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<TestReport.AnomalyDetection>> getRecentAnomalies(
+            @RequestParam(required = false) String testCaseId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(anomalyDetector.getRecentAnomalies(testCaseId, Math.max(1, Math.min(limit, MAX_ANOMALIES))));
+    }
+
+    @GetMapping("/anomalies/baseline/{testCaseId}")
+    public ResponseEntity<Map<String, Object>> getAnomalyBaseline(@PathVariable String testCaseId) {
+        Map<String, Object> baseline = anomalyDetector.getBaseline(testCaseId);
+        if (baseline != null) {
+            return ResponseEntity.ok(baseline);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/anomalies/stats")
+    public ResponseEntity<Map<String, Object>> getAnomalyStatistics() {
+        return ResponseEntity.ok(anomalyDetector.getStatistics());
+    }
+}
@@ -1,6 +1,12 @@
 package com.radiotest.controller;
 
+import com.radiotest.framework.AcquisitionMonitor;
+import com.radiotest.framework.TestUpdateBroadcaster;
+import com.radiotest.messaging.EventPublisher;
+import com.radiotest.messaging.ExecutionIngestService;
+import com.radiotest.model.ExecutionPage;
 import com.radiotest.model.TestExecution;
+import com.radiotest.service.ExecutionWriteBehindService;
 import com.radiotest.service.TestExecutionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -10,16 +16,29 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/test-executions")
 @RequiredArgsConstructor
 public class TestExecutionController {
     private final TestExecutionService testExecutionService;
+    private final ExecutionWriteBehindService executionWriteBehindService;
+    private final EventPublisher eventPublisher;
+    private final ExecutionIngestService executionIngestService;
+    private final TestUpdateBroadcaster testUpdateBroadcaster;
+    private final AcquisitionMonitor acquisitionMonitor;
 
+    /**
+     * Executions newest first, one page at a time. view=summary (default) omits measurements and the test log;
+     * view=full includes them.
+     */
     @GetMapping
-    public ResponseEntity<List<TestExecution>> getAllExecutions() {
-        return ResponseEntity.ok(testExecutionService.getAllExecutions());
+    public ResponseEntity<ExecutionPage<?>> getAllExecutions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "summary") String view) {
+        return getPage(null, null, cursor, limit, view);
     }
 
     @GetMapping("/{id}")
@@ -35,13 +54,21 @@ public class TestExecutionController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TestExecution>> getExecutionsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(testExecutionService.getExecutionsByStatus(status));
+    public ResponseEntity<ExecutionPage<?>> getExecutionsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "summary") String view) {
+        return getPage(status, null, cursor, limit, view);
     }
 
     @GetMapping("/technology/{technology}")
-    public ResponseEntity<List<TestExecution>> getExecutionsByTechnology(@PathVariable String technology) {
-        return ResponseEntity.ok(testExecutionService.getExecutionsByTechnology(technology));
+    public ResponseEntity<ExecutionPage<?>> getExecutionsByTechnology(
+            @PathVariable String technology,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "summary") String view) {
+        return getPage(null, technology, cursor, limit, view);
     }
 
     @GetMapping("/date-range")
@@ -52,8 +79,10 @@ public class TestExecutionController {
     }
 
     @GetMapping("/recent/test-case/{testCaseId}")
-    public ResponseEntity<List<TestExecution>> getRecentExecutionsByTestCaseId(@PathVariable String testCaseId) {
-        return ResponseEntity.ok(testExecutionService.getRecentExecutionsByTestCaseId(testCaseId));
+    public ResponseEntity<List<TestExecution>> getRecentExecutionsByTestCaseId(
+            @PathVariable String testCaseId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(testExecutionService.getRecentExecutionsByTestCaseId(testCaseId, limit));
     }
 
     @PostMapping
@@ -87,5 +116,39 @@ public class TestExecutionController {
     public ResponseEntity<Long> countByStatus(@RequestParam String status) {
         return ResponseEntity.ok(testExecutionService.countByStatus(status));
     }
-}
 
+    @GetMapping("/stats/persistence")
+    public ResponseEntity<Map<String, Object>> getPersistenceStatistics() {
+        return ResponseEntity.ok(executionWriteBehindService.getStatistics());
+    }
+
+    @GetMapping("/stats/events")
+    public ResponseEntity<Map<String, Object>> getEventStatistics() {
+        return ResponseEntity.ok(eventPublisher.getStatistics());
+    }
+
+    @GetMapping("/stats/ingest")
+    public ResponseEntity<Map<String, Object>> getIngestStatistics() {
+        return ResponseEntity.ok(executionIngestService.getStatistics());
+    }
+
+    @GetMapping("/stats/websocket")
+    public ResponseEntity<Map<String, Object>> getWebSocketStatistics() {
+        return ResponseEntity.ok(testUpdateBroadcaster.getStatistics());
+    }
+
+    @GetMapping("/stats/acquisition")
+    public ResponseEntity<Map<String, Object>> getAcquisitionStatistics() {
+        return ResponseEntity.ok(acquisitionMonitor.getStatistics());
+    }
+
+    private ResponseEntity<ExecutionPage<?>> getPage(String status, String technology, String cursor,
+                                                     int limit, String view) {
+        try {
+            return ResponseEntity.ok(testExecutionService.getExecutionsPage(status, technology, cursor, limit,
+                    "full".equalsIgnoreCase(view)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
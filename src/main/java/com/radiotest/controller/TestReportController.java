@@ -2,10 +2,13 @@ package com.radiotest.controller;
 
 import com.radiotest.model.TestReport;
 import com.radiotest.service.TestReportService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.LocalDateTime;
 
@@ -15,12 +18,33 @@ import java.time.LocalDateTime;
 public class TestReportController {
     private final TestReportService testReportService;
 
+    @Value("${radiotest.reports.stream-timeout-ms:600000}")
+    private long streamTimeoutMs;
+
     @PostMapping("/generate")
     public ResponseEntity<TestReport> generateReport(
             @RequestParam String testSuite,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        return ResponseEntity.ok(testReportService.generateReport(testSuite, startTime, endTime));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "false") boolean includeExecutions) {
+        return ResponseEntity.ok(testReportService.generateReport(testSuite, startTime, endTime, includeExecutions));
+    }
+
+    /**
+     * Same report as NDJSON: one line per completed execution as it is read, then a final line with the aggregates.
+     * Streams on an async thread with its own timeout, so long windows do not need a global async timeout.
+     */
+    @PostMapping(value = "/generate/stream", produces = "application/x-ndjson")
+    public WebAsyncTask<Void> streamReport(
+            @RequestParam String testSuite,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            HttpServletResponse response) {
+        return new WebAsyncTask<>(streamTimeoutMs, () -> {
+            response.setContentType("application/x-ndjson");
+            testReportService.streamReport(testSuite, startTime, endTime, response.getOutputStream());
+            return null;
+        });
     }
 
     @GetMapping("/test-case/{testCaseId}")
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -67,5 +68,16 @@ public class TestRunnerController {
                     .body(Map.of("status", "error", "message", e.getMessage()));
         }
     }
-}
 
+    @GetMapping("/suites")
+    public ResponseEntity<List<Map<String, Object>>> getSuiteReports() {
+        return ResponseEntity.ok(testRunner.getSuiteReports());
+    }
+
+    @GetMapping("/suites/{suiteId}")
+    public ResponseEntity<Map<String, Object>> getSuiteReport(@PathVariable String suiteId) {
+        return testRunner.getSuiteReport(suiteId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
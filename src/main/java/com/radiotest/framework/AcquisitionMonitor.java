@@ -0,0 +1,335 @@
+package com.radiotest.framework;
+
+import com.radiotest.analytics.RunningStatistics;
+import com.radiotest.messaging.AlertEvent;
+import com.radiotest.messaging.EventPublisher;
+import com.radiotest.ml.StreamingDetector;
+import com.radiotest.model.TestCase;
+import com.radiotest.model.TestExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches power samples while a test is still acquiring them.
+ * Each sample is scored by a streaming detector (radiotest.acquisition.monitor.detector) against the earlier
+ * samples of the same run; a score at or above alert-score raises an alert, sent in the next
+ * /topic/test-updates frame and on the test-alerts Kafka topic.
+ * <p>
+ * With early abort enabled, acquisition stops as soon as the confidence interval of the mean power lies
+ * entirely outside the expected window: the test is then certain to fail at the configured confidence,
+ * and the remaining samples and the EVM/ACPR acquisitions would only cost bench time.
+ * <p>
+ * The interval is only checked at the end of each block of samples, and the error rate is split evenly
+ * (Bonferroni) over the most looks a run can take, so repeated looks keep the chance of any wrong early
+ * decision within 1 - confidence.
+ * <p>
+ * In sequential measurement mode (radiotest.acquisition.sequential.enabled, or the test case parameter
+ * measurementMode=sequential|fixed) acquisition also stops once the interval lies entirely inside the window,
+ * so numMeasurements becomes a cap rather than a fixed count.
+ */
+@Component
+@Slf4j
+public class AcquisitionMonitor {
+    static final String ABORT_DETECTOR = "confidence-interval";
+    static final String MODE_PARAMETER = "measurementMode";
+
+    private final TestUpdateBroadcaster updateBroadcaster;
+    private final EventPublisher eventPublisher;
+    private final boolean enabled;
+    private final StreamingDetector detector;
+    private final double alertScore;
+    private final int maxAlertsPerExecution;
+    private final boolean earlyAbort;
+    private final double confidence;
+    private final int minSamples;
+    private final int chunkSize;
+    private final boolean sequentialByDefault;
+    private final double sequentialConfidence;
+    private final int sequentialMinSamples;
+    private final int sequentialChunkSize;
+
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder alerts = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private final LongAdder sequentialSessions = new LongAdder();
+    private final LongAdder passedEarly = new LongAdder();
+    private final LongAdder samplesSkipped = new LongAdder();
+
+    public AcquisitionMonitor(TestUpdateBroadcaster updateBroadcaster,
+                              EventPublisher eventPublisher,
+                              List<StreamingDetector> detectors,
+                              @Value("${radiotest.acquisition.monitor.enabled:true}") boolean enabled,
+                              @Value("${radiotest.acquisition.monitor.detector:cusum}") String detectorName,
+                              @Value("${radiotest.acquisition.monitor.alert-score:3.0}") double alertScore,
+                              @Value("${radiotest.acquisition.monitor.max-alerts-per-execution:3}") int maxAlertsPerExecution,
+                              @Value("${radiotest.acquisition.early-abort.enabled:false}") boolean earlyAbort,
+                              @Value("${radiotest.acquisition.early-abort.confidence:0.999}") double confidence,
+                              @Value("${radiotest.acquisition.early-abort.min-samples:10}") int minSamples,
+                              @Value("${radiotest.acquisition.chunk-size:50}") int chunkSize,
+                              @Value("${radiotest.acquisition.sequential.enabled:false}") boolean sequentialByDefault,
+                              @Value("${radiotest.acquisition.sequential.confidence:0.99}") double sequentialConfidence,
+                              @Value("${radiotest.acquisition.sequential.min-samples:5}") int sequentialMinSamples,
+                              @Value("${radiotest.acquisition.sequential.chunk-size:5}") int sequentialChunkSize) {
+        if (confidence <= 0.5 || confidence >= 1) {
+            throw new IllegalArgumentException("radiotest.acquisition.early-abort.confidence must be in (0.5, 1)");
+        }
+        if (sequentialConfidence <= 0.5 || sequentialConfidence >= 1) {
+            throw new IllegalArgumentException("radiotest.acquisition.sequential.confidence must be in (0.5, 1)");
+        }
+        this.updateBroadcaster = updateBroadcaster;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.detector = detectors.stream()
+                .filter(candidate -> candidate.getName().equalsIgnoreCase(detectorName.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown acquisition detector '" + detectorName + "'"));
+        this.alertScore = alertScore;
+        this.maxAlertsPerExecution = maxAlertsPerExecution;
+        this.earlyAbort = earlyAbort;
+        this.confidence = confidence;
+        this.minSamples = Math.max(2, minSamples);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.sequentialByDefault = sequentialByDefault;
+        this.sequentialConfidence = sequentialConfidence;
+        this.sequentialMinSamples = Math.max(2, sequentialMinSamples);
+        this.sequentialChunkSize = Math.max(1, sequentialChunkSize);
+    }
+
+    /**
+     * Start watching the acquisition of one execution
+     */
+    public Session start(TestExecution execution, String suiteId, TestCase testCase, int plannedSamples) {
+        sessions.increment();
+        Session session = new Session(execution, suiteId, testCase, plannedSamples, isSequential(testCase));
+        if (session.sequential) {
+            sequentialSessions.increment();
+        }
+        return session;
+    }
+
+    private boolean isSequential(TestCase testCase) {
+        String mode = testCase.getParameters() != null ? testCase.getParameters().get(MODE_PARAMETER) : null;
+        if (mode == null || mode.isBlank()) {
+            return sequentialByDefault;
+        }
+        if (!mode.equalsIgnoreCase("sequential") && !mode.equalsIgnoreCase("fixed")) {
+            throw new IllegalArgumentException("Unknown " + MODE_PARAMETER + " '" + mode + "' (expected sequential or fixed)");
+        }
+        return mode.equalsIgnoreCase("sequential");
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("detector", detector.getName());
+        stats.put("alertScore", alertScore);
+        stats.put("earlyAbort", earlyAbort);
+        stats.put("confidence", confidence);
+        stats.put("chunkSize", chunkSize);
+        stats.put("sequentialByDefault", sequentialByDefault);
+        stats.put("sequentialConfidence", sequentialConfidence);
+        stats.put("sessions", sessions.sum());
+        stats.put("sequentialSessions", sequentialSessions.sum());
+        stats.put("samples", samples.sum());
+        stats.put("alerts", alerts.sum());
+        stats.put("aborted", aborted.sum());
+        stats.put("passedEarly", passedEarly.sum());
+        stats.put("samplesSkipped", samplesSkipped.sum());
+        return stats;
+    }
+
+    /**
+     * Upper p-quantile of the standard normal distribution (Abramowitz and Stegun 26.2.23, error below 4.5e-4)
+     */
+    static double normalQuantile(double p) {
+        double tail = p > 0.5 ? 1 - p : p;
+        double t = Math.sqrt(-2 * Math.log(tail));
+        double z = t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+                / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+        return p > 0.5 ? z : -z;
+    }
+
+    /**
+     * p-quantile of Student's t distribution with the given degrees of freedom (Cornish-Fisher expansion);
+     * small samples get the wider interval their uncertain standard deviation calls for
+     */
+    static double studentQuantile(double p, int degreesOfFreedom) {
+        double z = normalQuantile(p);
+        double v = degreesOfFreedom;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double z7 = z5 * z * z;
+        return z + (z3 + z) / (4 * v)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * v * v * v);
+    }
+
+    /**
+     * Monitor state for one acquisition; used by the executing test's thread only
+     */
+    public class Session {
+        private final TestExecution execution;
+        private final String suiteId;
+        private final TestCase testCase;
+        private final int plannedSamples;
+        private final boolean sequential;
+        private final boolean deciding; // stops on a decided outcome: sequential mode or early abort
+        private final double decisionConfidence;
+        private final int decisionMinSamples;
+        private final int looks;
+        private final double lookConfidence;
+        private final StreamingDetector.Baseline baseline;
+        private final RunningStatistics power = new RunningStatistics();
+        private int alertCount;
+        private String abortReason;
+        private boolean passed;
+
+        Session(TestExecution execution, String suiteId, TestCase testCase, int plannedSamples, boolean sequential) {
+            this.execution = execution;
+            this.suiteId = suiteId;
+            this.testCase = testCase;
+            this.plannedSamples = plannedSamples;
+            this.sequential = sequential;
+            this.deciding = sequential || earlyAbort;
+            this.decisionConfidence = sequential ? sequentialConfidence : confidence;
+            this.decisionMinSamples = sequential ? sequentialMinSamples : minSamples;
+            this.baseline = detector.newBaseline();
+            this.looks = countLooks();
+            this.lookConfidence = 1 - (1 - decisionConfidence) / looks;
+        }
+
+        /**
+         * Block ends at or after the minimum sample count and before the last sample: the most times
+         * a run can be checked
+         */
+        private int countLooks() {
+            int size = getChunkSize();
+            int firstLook = (decisionMinSamples + size - 1) / size;
+            int lastLook = (plannedSamples - 1) / size;
+            return Math.max(1, lastLook - firstLook + 1);
+        }
+
+        /**
+         * Samples per hardware-timed block: small enough to act between blocks, or the whole run in one
+         * block when there is nothing to watch
+         */
+        public int getChunkSize() {
+            int size = sequential ? sequentialChunkSize : enabled || deciding ? chunkSize : plannedSamples;
+            return Math.max(1, Math.min(size, plannedSamples));
+        }
+
+        /**
+         * Feed the next power sample; returns false once acquisition should stop
+         */
+        public boolean accept(double sample) {
+            samples.increment();
+            power.add(sample);
+            if (enabled) {
+                double expected = baseline.getExpected();
+                double score = baseline.update(sample);
+                if (!Double.isNaN(score) && score >= alertScore && alertCount < maxAlertsPerExecution) {
+                    alertCount++;
+                    raise(sample, expected, score, detector.getName(), "ALERT", String.format(
+                            "Power sample %d of %d (%.2f dBm) departs from this run's baseline %.2f dBm",
+                            power.getCount(), plannedSamples, sample, expected));
+                }
+            }
+            if (!deciding || power.getCount() < decisionMinSamples || power.getCount() >= plannedSamples
+                    || power.getCount() % getChunkSize() != 0) {
+                return true;
+            }
+            double margin = margin();
+            abortReason = certainFailure(margin);
+            if (abortReason != null) {
+                aborted.increment();
+                samplesSkipped.add(getSamplesSaved());
+                raise(power.getMean(), null, null, ABORT_DETECTOR, "ABORTED", abortReason);
+                log.info("Execution {} of {}: {}", execution.getId(), testCase.getTestCaseId(), abortReason);
+                return false;
+            }
+            if (sequential && certainPass(margin)) {
+                passed = true;
+                passedEarly.increment();
+                samplesSkipped.add(getSamplesSaved());
+                log.debug("Execution {} of {}: power decided after {} of {} samples", execution.getId(),
+                        testCase.getTestCaseId(), power.getCount(), plannedSamples);
+                return false;
+            }
+            return true;
+        }
+
+        public boolean isAborted() {
+            return abortReason != null;
+        }
+
+        public String getAbortReason() {
+            return abortReason;
+        }
+
+        public boolean isSequential() {
+            return sequential;
+        }
+
+        /**
+         * Planned samples not taken because the outcome was decided early
+         */
+        public int getSamplesSaved() {
+            return abortReason != null || passed ? (int) Math.max(0, plannedSamples - power.getCount()) : 0;
+        }
+
+        /**
+         * Half-width of the one-sided Student-t confidence bound on the mean power, at this look's share
+         * of the error rate
+         */
+        private double margin() {
+            long n = power.getCount();
+            return studentQuantile(lookConfidence, (int) n - 1) * Math.sqrt(power.getSampleVariance() / n);
+        }
+
+        /**
+         * Failure message if the mean power is outside the window at the configured confidence, else null
+         */
+        private String certainFailure(double margin) {
+            long n = power.getCount();
+            double mean = power.getMean();
+            Double min = testCase.getExpectedPowerMin();
+            Double max = testCase.getExpectedPowerMax();
+            if (min != null && mean + margin < min) {
+                return String.format("Aborted after %d of %d samples: mean power %.2f dBm is below minimum %.2f dBm " +
+                        "at %.1f%% confidence", n, plannedSamples, mean, min, decisionConfidence * 100);
+            }
+            if (max != null && mean - margin > max) {
+                return String.format("Aborted after %d of %d samples: mean power %.2f dBm is above maximum %.2f dBm " +
+                        "at %.1f%% confidence", n, plannedSamples, mean, max, decisionConfidence * 100);
+            }
+            return null;
+        }
+
+        /**
+         * The mean power is inside the window at the configured confidence
+         */
+        private boolean certainPass(double margin) {
+            double mean = power.getMean();
+            Double min = testCase.getExpectedPowerMin();
+            Double max = testCase.getExpectedPowerMax();
+            return (min == null || mean - margin >= min) && (max == null || mean + margin <= max);
+        }
+
+        private void raise(double value, Double expected, Double score, String detectorName, String action, String message) {
+            alerts.increment();
+            AlertEvent alert = new AlertEvent(execution.getId(), suiteId, testCase.getTestCaseId(),
+                    testCase.getTechnology(), "powerLevel", (int) power.getCount() - 1, value, expected, score,
+                    detectorName, "HIGH", action, message, LocalDateTime.now(), null);
+            updateBroadcaster.submitAlert(alert);
+            eventPublisher.publishAlert(alert);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.radiotest.framework;
+
+import com.radiotest.model.TestExecution;
+import lombok.Data;
+
+/**
+ * Published (in-process) when TestExecutor finishes an execution, after its final state has been
+ * handed to the write-behind persistence queue, and when an execution from another bench has been
+ * ingested from Kafka (ingested = true; such executions are not published back to Kafka).
+ */
+@Data
+public class ExecutionCompletedEvent {
+    private final TestExecution execution;
+    private final String suiteId; // null for standalone runs
+    private final boolean ingested;
+
+    public ExecutionCompletedEvent(TestExecution execution, String suiteId) {
+        this(execution, suiteId, false);
+    }
+
+    public ExecutionCompletedEvent(TestExecution execution, String suiteId, boolean ingested) {
+        this.execution = execution;
+        this.suiteId = suiteId;
+        this.ingested = ingested;
+    }
+}
@@ -0,0 +1,156 @@
+package com.radiotest.framework;
+
+import com.radiotest.instruments.InstrumentException;
+import com.radiotest.instruments.InstrumentFactory;
+import com.radiotest.instruments.SignalCapture;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stage timings and EVM/ACPR analysis of the per-test measurement pipeline.
+ * Each test configures the signal generator, waits for and configures the spectrum analyzer, acquires
+ * power samples, then captures the signal for EVM/ACPR. A detached capture frees the generator (the bench
+ * goes to the next test, which configures its generator meanwhile) and is analysed with EVM and ACPR in
+ * parallel; a live capture keeps both instruments and measures one at a time.
+ * Stage durations are Micrometer timers (radiotest.pipeline.stage, tagged by stage).
+ */
+@Component
+@Slf4j
+public class MeasurementPipeline {
+    public enum Stage {
+        CONFIGURE_GENERATOR, ANALYZER_WAIT, CONFIGURE_ANALYZER, POWER, CAPTURE, ANALYSIS, GENERATOR_HOLD, ANALYZER_HOLD;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final int benchCount;
+    private final ExecutorService analysisExecutor;
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder concurrentAnalyses = new LongAdder();
+    private final LongAdder liveAnalyses = new LongAdder();
+    private final LongAdder generatorHandoffs = new LongAdder();
+    private final LongAdder overlapNanos = new LongAdder();
+
+    public MeasurementPipeline(MeterRegistry meterRegistry,
+                               InstrumentFactory instrumentFactory,
+                               @Value("${radiotest.pipeline.analysis-threads:4}") int analysisThreads) {
+        this.benchCount = instrumentFactory.getBenchCount();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.analysisExecutor = Executors.newFixedThreadPool(Math.max(1, analysisThreads), runnable -> {
+            Thread thread = new Thread(runnable, "measurement-analysis-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("radiotest.pipeline.stage")
+                    .tag("stage", stage.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time between a generator hand-off and the analyzer's release: how long the next test could use the
+     * generator while this one was still analysing
+     */
+    public void recordHandoff(long overlapNanos) {
+        generatorHandoffs.increment();
+        this.overlapNanos.add(overlapNanos);
+    }
+
+    /**
+     * EVM and ACPR of a capture: in parallel when the capture is detached, otherwise one after the other.
+     * A measurement that fails is logged and reported as null.
+     */
+    public Analysis analyze(SignalCapture capture) {
+        long start = System.nanoTime();
+        Analysis analysis;
+        if (capture.isDetached()) {
+            concurrentAnalyses.increment();
+            CompletableFuture<Double> evm = CompletableFuture.supplyAsync(
+                    () -> measure("EVM", capture::measureEVM), analysisExecutor);
+            Double acpr = measure("ACPR", capture::measureACPR);
+            analysis = new Analysis(evm.join(), acpr);
+        } else {
+            liveAnalyses.increment();
+            analysis = new Analysis(measure("EVM", capture::measureEVM), measure("ACPR", capture::measureACPR));
+        }
+        record(Stage.ANALYSIS, System.nanoTime() - start);
+        log.info("EVM measured: {}%, ACPR measured: {} dB using Spectrum Analyzer", analysis.evm(), analysis.acpr());
+        return analysis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        analysisExecutor.shutdownNow();
+    }
+
+    /**
+     * Per-stage count/mean/max/total milliseconds, hand-offs and instrument utilization
+     * (hold time over bench count times uptime)
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            Timer timer = timers.get(stage);
+            Map<String, Object> stageStats = new LinkedHashMap<>();
+            stageStats.put("count", timer.count());
+            stageStats.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+            stageStats.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            stageStats.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            stages.put(stage.tag(), stageStats);
+        }
+        stats.put("stages", stages);
+        stats.put("concurrentAnalyses", concurrentAnalyses.sum());
+        stats.put("liveAnalyses", liveAnalyses.sum());
+        stats.put("generatorHandoffs", generatorHandoffs.sum());
+        stats.put("handoffOverlapMs", overlapNanos.sum() / 1_000_000.0);
+        double capacityMs = benchCount * (System.nanoTime() - startNanos) / 1_000_000.0;
+        stats.put("benchCount", benchCount);
+        stats.put("generatorUtilization", capacityMs > 0
+                ? timers.get(Stage.GENERATOR_HOLD).totalTime(TimeUnit.MILLISECONDS) / capacityMs : 0.0);
+        stats.put("analyzerUtilization", capacityMs > 0
+                ? timers.get(Stage.ANALYZER_HOLD).totalTime(TimeUnit.MILLISECONDS) / capacityMs : 0.0);
+        return stats;
+    }
+
+    private static Double measure(String name, Measurement measurement) {
+        try {
+            return measurement.measure();
+        } catch (Exception e) {
+            log.warn("Error measuring {}", name, e);
+            return null;
+        }
+    }
+
+    public record Analysis(Double evm, Double acpr) {
+    }
+
+    @FunctionalInterface
+    private interface Measurement {
+        Double measure() throws InstrumentException;
+    }
+}
@@ -0,0 +1,296 @@
+package com.radiotest.framework;
+
+import com.radiotest.instruments.InstrumentFactory;
+import com.radiotest.model.TestCase;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a suite into one share per bench and orders each share to minimize instrument retuning.
+ * Shares respect the benches' technology/frequency affinity and are balanced by test count; tests
+ * with the same configuration are kept on one bench where the balance allows. Within a share, tests
+ * sharing a parameter set and frequency run back to back, stepping through power levels, so the
+ * shadow-state layer can skip most writes. The runner runs each share in order on its bench.
+ * A simple per-write cost model (including settling) estimates the time saved against the same
+ * shares in submitted order; the executor reports the measured configuration time so the
+ * estimate can be checked per suite.
+ */
+@Component
+@Slf4j
+public class SuitePlanner {
+    private static final int MAX_TRACKED_SUITES = 50;
+
+    private static final Comparator<TestCase> BY_FREQUENCY = Comparator.comparing(
+            TestCase::getExpectedFrequencyHz, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<TestCase> BY_PARAMETERS = Comparator.comparing(
+            (TestCase tc) -> parameterSignature(tc.getParameters()));
+    private static final Comparator<TestCase> BY_POWER = Comparator.comparing(
+            SuitePlanner::targetPowerDbm, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<TestCase> PARAMETERS_FIRST = BY_PARAMETERS.thenComparing(BY_FREQUENCY).thenComparing(BY_POWER);
+    private static final Comparator<TestCase> FREQUENCY_FIRST = BY_FREQUENCY.thenComparing(BY_PARAMETERS).thenComparing(BY_POWER);
+
+    private final InstrumentFactory instrumentFactory;
+    private final boolean enabled;
+    private final double frequencyRetuneMs;
+    private final double powerRetuneMs;
+    private final double parameterWriteMs;
+
+    private final Map<String, SuitePlan> suites = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SuitePlan> eldest) {
+                    return size() > MAX_TRACKED_SUITES;
+                }
+            });
+
+    public SuitePlanner(InstrumentFactory instrumentFactory,
+                        @Value("${radiotest.planner.enabled:true}") boolean enabled,
+                        @Value("${radiotest.planner.frequency-retune-ms:50}") double frequencyRetuneMs,
+                        @Value("${radiotest.planner.power-retune-ms:20}") double powerRetuneMs,
+                        @Value("${radiotest.planner.parameter-write-ms:5}") double parameterWriteMs) {
+        this.instrumentFactory = instrumentFactory;
+        this.enabled = enabled;
+        this.frequencyRetuneMs = frequencyRetuneMs;
+        this.powerRetuneMs = powerRetuneMs;
+        this.parameterWriteMs = parameterWriteMs;
+    }
+
+    /**
+     * Plan a suite: split it into bench shares, reorder each and estimate the reconfiguration cost before and after
+     */
+    public SuitePlan plan(String suiteName, List<TestCase> testCases) {
+        Map<String, List<TestCase>> shares = new LinkedHashMap<>();
+        double originalCost = 0.0;
+        double plannedCost = 0.0;
+        for (Map.Entry<String, List<TestCase>> share : partition(testCases).entrySet()) {
+            List<TestCase> ordered = share.getValue();
+            double shareCost = estimateCostMs(ordered);
+            originalCost += shareCost;
+            if (enabled) {
+                // Try grouping by parameter set first and by frequency first; keep whichever the cost model prefers
+                for (Comparator<TestCase> ordering : List.of(PARAMETERS_FIRST, FREQUENCY_FIRST)) {
+                    List<TestCase> candidate = new ArrayList<>(share.getValue());
+                    candidate.sort(ordering);
+                    double candidateCost = estimateCostMs(candidate);
+                    if (candidateCost < shareCost) {
+                        ordered = candidate;
+                        shareCost = candidateCost;
+                    }
+                }
+            }
+            plannedCost += shareCost;
+            shares.put(share.getKey(), ordered);
+        }
+
+        SuitePlan plan = new SuitePlan(UUID.randomUUID().toString(), suiteName, shares,
+                originalCost, plannedCost);
+        suites.put(plan.getSuiteId(), plan);
+        log.info("Planned suite {} ({} tests on {} bench(es)): estimated reconfiguration {} ms -> {} ms",
+                suiteName, plan.getTotalTests(), shares.size(), Math.round(plan.getEstimatedOriginalCostMs()),
+                Math.round(plan.getEstimatedPlannedCostMs()));
+        return plan;
+    }
+
+    /**
+     * Assign every test to one of the benches it may run on. Tests with the same eligible benches and
+     * configuration (parameter set and frequency) form a group; groups are placed largest first on the least
+     * loaded eligible bench, and split only where a group would push that bench past an even share of the
+     * suite. Each share keeps the submitted order.
+     */
+    Map<String, List<TestCase>> partition(List<TestCase> testCases) {
+        Map<List<Object>, List<TestCase>> groups = new LinkedHashMap<>();
+        Map<List<Object>, List<String>> eligible = new HashMap<>();
+        for (TestCase testCase : testCases) {
+            List<String> benchIds = instrumentFactory.getBenchIdsFor(testCase.getTechnology(), testCase.getExpectedFrequencyHz());
+            List<Object> key = Arrays.asList(benchIds, parameterSignature(testCase.getParameters()),
+                    testCase.getExpectedFrequencyHz());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(testCase);
+            eligible.put(key, benchIds);
+        }
+        int evenShare = (int) Math.ceil((double) testCases.size() / Math.max(1, instrumentFactory.getBenchCount()));
+        Map<String, Integer> load = new HashMap<>();
+        Map<TestCase, String> assignment = new IdentityHashMap<>();
+        List<Map.Entry<List<Object>, List<TestCase>>> largestFirst = new ArrayList<>(groups.entrySet());
+        largestFirst.sort(Comparator.comparingInt((Map.Entry<List<Object>, List<TestCase>> group) -> group.getValue().size()).reversed());
+        for (Map.Entry<List<Object>, List<TestCase>> group : largestFirst) {
+            List<String> benchIds = eligible.get(group.getKey());
+            Iterator<TestCase> remaining = group.getValue().iterator();
+            int left = group.getValue().size();
+            while (left > 0) {
+                String benchId = Collections.min(benchIds, Comparator.comparingInt(id -> load.getOrDefault(id, 0)));
+                int benchLoad = load.getOrDefault(benchId, 0);
+                int take = benchLoad + left <= evenShare ? left
+                        : benchLoad < evenShare ? evenShare - benchLoad
+                        : (int) Math.ceil((double) left / benchIds.size()); // every eligible bench is full: spread evenly
+                for (int i = 0; i < take; i++) {
+                    assignment.put(remaining.next(), benchId);
+                }
+                load.merge(benchId, take, Integer::sum);
+                left -= take;
+            }
+        }
+        Map<String, List<TestCase>> shares = new LinkedHashMap<>();
+        for (TestCase testCase : testCases) {
+            shares.computeIfAbsent(assignment.get(testCase), id -> new ArrayList<>()).add(testCase);
+        }
+        return shares;
+    }
+
+    /**
+     * Record the measured instrument configuration time of one test in a suite
+     */
+    public void recordConfiguration(String suiteId, long configureNanos) {
+        SuitePlan plan = suiteId != null ? suites.get(suiteId) : null;
+        if (plan != null) {
+            plan.actualConfigureNanos.add(configureNanos);
+        }
+    }
+
+    /**
+     * Record that one test of a suite finished; logs the suite report once all tests are done
+     */
+    public void recordCompletion(String suiteId) {
+        SuitePlan plan = suiteId != null ? suites.get(suiteId) : null;
+        if (plan != null && plan.completedTests.incrementAndGet() == plan.getTotalTests()) {
+            plan.completedAt = LocalDateTime.now();
+            log.info("Suite {} completed: configuration {} ms measured, {} ms estimated; estimated saving {} ms",
+                    plan.getSuiteName(), plan.getActualConfigureMs(), Math.round(plan.getEstimatedPlannedCostMs()),
+                    Math.round(plan.getEstimatedSavedMs()));
+        }
+    }
+
+    public Optional<SuitePlan> getSuite(String suiteId) {
+        return Optional.ofNullable(suites.get(suiteId));
+    }
+
+    public List<Map<String, Object>> getSuiteReports() {
+        synchronized (suites) {
+            return suites.values().stream().map(SuitePlan::toReport).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Estimated time to reconfigure a bench through the test cases in the given order
+     */
+    double estimateCostMs(List<TestCase> testCases) {
+        double cost = 0.0;
+        TestCase previous = null;
+        for (TestCase testCase : testCases) {
+            cost += transitionCostMs(previous, testCase);
+            previous = testCase;
+        }
+        return cost;
+    }
+
+    private double transitionCostMs(TestCase previous, TestCase next) {
+        double cost = 0.0;
+        Map<String, String> nextParams = next.getParameters() != null ? next.getParameters() : Map.of();
+        Map<String, String> previousParams = previous != null && previous.getParameters() != null
+                ? previous.getParameters() : Map.of();
+        for (Map.Entry<String, String> param : nextParams.entrySet()) {
+            if (!Objects.equals(previousParams.get(param.getKey()), param.getValue())) {
+                cost += parameterWriteMs * 2; // written to both instruments
+            }
+        }
+        Double frequency = next.getExpectedFrequencyHz();
+        if (frequency != null && (previous == null || !frequency.equals(previous.getExpectedFrequencyHz()))) {
+            cost += frequencyRetuneMs;
+        }
+        Double power = targetPowerDbm(next);
+        if (power != null && (previous == null || !power.equals(targetPowerDbm(previous)))) {
+            cost += powerRetuneMs;
+        }
+        return cost;
+    }
+
+    /**
+     * Power level the executor programs for a test case: the midpoint of its expected window
+     */
+    static Double targetPowerDbm(TestCase testCase) {
+        if (testCase.getExpectedPowerMin() == null) {
+            return null;
+        }
+        return (testCase.getExpectedPowerMin() +
+                (testCase.getExpectedPowerMax() != null ? testCase.getExpectedPowerMax() : testCase.getExpectedPowerMin())) / 2.0;
+    }
+
+    private static String parameterSignature(Map<String, String> parameters) {
+        return parameters == null ? "" : new TreeMap<>(parameters).toString();
+    }
+
+    @Getter
+    public static class SuitePlan {
+        private final String suiteId;
+        private final String suiteName;
+        private final Map<String, List<TestCase>> benchShares; // bench id -> its tests, in run order
+        private final double estimatedOriginalCostMs;
+        private final double estimatedPlannedCostMs;
+        private final LocalDateTime plannedAt = LocalDateTime.now();
+        private volatile LocalDateTime completedAt;
+        private final AtomicInteger completedTests = new AtomicInteger();
+        private final LongAdder actualConfigureNanos = new LongAdder();
+
+        SuitePlan(String suiteId, String suiteName, Map<String, List<TestCase>> benchShares,
+                  double estimatedOriginalCostMs, double estimatedPlannedCostMs) {
+            this.suiteId = suiteId;
+            this.suiteName = suiteName;
+            this.benchShares = benchShares;
+            this.estimatedOriginalCostMs = estimatedOriginalCostMs;
+            this.estimatedPlannedCostMs = estimatedPlannedCostMs;
+        }
+
+        public int getTotalTests() {
+            return benchShares.values().stream().mapToInt(List::size).sum();
+        }
+
+        public double getEstimatedSavedMs() {
+            return estimatedOriginalCostMs - estimatedPlannedCostMs;
+        }
+
+        public long getActualConfigureMs() {
+            return TimeUnit.NANOSECONDS.toMillis(actualConfigureNanos.sum());
+        }
+
+        /**
+         * The cost model rescaled to the measured configuration time of the planned order: the estimated
+         * cost of the submitted order at the per-retune cost actually observed. Null until the suite completes.
+         */
+        public Double getCalibratedOriginalCostMs() {
+            if (completedAt == null || estimatedPlannedCostMs <= 0) {
+                return null;
+            }
+            return estimatedOriginalCostMs * getActualConfigureMs() / estimatedPlannedCostMs;
+        }
+
+        public Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("suiteId", suiteId);
+            report.put("suiteName", suiteName);
+            report.put("totalTests", getTotalTests());
+            report.put("completedTests", completedTests.get());
+            Map<String, Integer> shareSizes = new LinkedHashMap<>();
+            benchShares.forEach((benchId, share) -> shareSizes.put(benchId, share.size()));
+            report.put("benchShares", shareSizes);
+            report.put("plannedAt", plannedAt.toString());
+            report.put("completedAt", completedAt != null ? completedAt.toString() : null);
+            report.put("estimatedOriginalCostMs", estimatedOriginalCostMs);
+            report.put("estimatedPlannedCostMs", estimatedPlannedCostMs);
+            report.put("estimatedSavedMs", getEstimatedSavedMs());
+            report.put("actualConfigureMs", getActualConfigureMs());
+            // The submitted order never ran, so its cost is only ever estimated; compare like with like
+            Double calibratedOriginal = getCalibratedOriginalCostMs();
+            report.put("calibratedOriginalCostMs", calibratedOriginal);
+            report.put("calibratedSavedMs", calibratedOriginal != null ? calibratedOriginal - getActualConfigureMs() : null);
+            return report;
+        }
+    }
+}
@@ -1,33 +1,67 @@
 package com.radiotest.framework;
 
-import com.radiotest.instruments.InstrumentFactory;
+import com.radiotest.instruments.InstrumentException;
 import com.radiotest.instruments.InstrumentInterface;
+import com.radiotest.instruments.InstrumentLease;
+import com.radiotest.instruments.InstrumentLeaseScheduler;
+import com.radiotest.instruments.SignalCapture;
+import com.radiotest.model.MeasurementTrace;
 import com.radiotest.model.TestCase;
 import com.radiotest.model.TestExecution;
-import com.radiotest.service.TestExecutionService;
+import com.radiotest.service.ExecutionWriteBehindService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TestExecutor {
-    private final TestExecutionService testExecutionService;
-    private final InstrumentFactory instrumentFactory;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ExecutionWriteBehindService executionWriteBehindService;
+    private final InstrumentLeaseScheduler leaseScheduler;
+    private final SuitePlanner suitePlanner;
+    private final TestUpdateBroadcaster updateBroadcaster;
+    private final AcquisitionMonitor acquisitionMonitor;
+    private final MeasurementPipeline measurementPipeline;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Async("testTaskExecutor")
     public void executeTest(TestCase testCase) {
+        executeTest(testCase, null);
+    }
+
+    /**
+     * Execute a test case as part of a planned suite (suiteId may be null for standalone runs)
+     */
+    @Async("testTaskExecutor")
+    public void executeTest(TestCase testCase, String suiteId) {
+        runTest(testCase, suiteId, null);
+    }
+
+    /**
+     * Execute a test of a planned suite on the bench the plan assigned it, once the test planned before
+     * it on that bench has leased the bench
+     */
+    @Async("testTaskExecutor")
+    public void executeTest(TestCase testCase, String suiteId, BenchTurn turn) {
+        try {
+            runTest(testCase, suiteId, turn);
+        } finally {
+            turn.leased().complete(null); // never hold up the rest of the share
+        }
+    }
+
+    private void runTest(TestCase testCase, String suiteId, BenchTurn turn) {
         log.info("Starting test execution for test case: {}", testCase.getTestCaseId());
         
         TestExecution execution = new TestExecution();
@@ -37,133 +71,179 @@ public class TestExecutor {
         execution.setStatus("RUNNING");
         execution.setStartTime(LocalDateTime.now());
         
-        execution = testExecutionService.createExecution(execution);
+        execution = executionWriteBehindService.create(execution);
         Long executionId = execution.getId();
         
         try {
             // Send start notification
-            sendTestUpdate(executionId, "RUNNING", "Test execution started");
+            sendTestUpdate(executionId, suiteId, "RUNNING", "Test execution started");
             
-            // Configure instrument based on test case parameters
-            configureInstrument(testCase);
-            
-            // Perform measurements
-            List<Double> measurements = performMeasurements(testCase);
-            execution.setMeasurements(measurements);
-            
-            // Extract specific measurements
-            Double powerLevel = extractPowerLevel(measurements, testCase);
-            Double frequencyHz = extractFrequency(measurements, testCase);
-            Double evm = extractEVM(measurements, testCase);
-            Double acpr = extractACPR(measurements, testCase);
-            
-            execution.setPowerLevel(powerLevel);
-            execution.setFrequencyHz(frequencyHz);
-            execution.setEvm(evm);
-            execution.setAcpr(acpr);
-            
-            // Validate results against expected values
-            String validationResult = validateResults(testCase, powerLevel, frequencyHz, evm, acpr);
-            
-            if ("PASSED".equals(validationResult)) {
-                execution.setStatus("PASSED");
-                sendTestUpdate(executionId, "PASSED", "Test passed successfully");
-            } else {
-                execution.setStatus("FAILED");
-                execution.setErrorMessage(validationResult);
-                sendTestUpdate(executionId, "FAILED", validationResult);
+            // Reserve a bench; its instruments are released as soon as this test is done with them
+            try (InstrumentLease lease = acquireLease(testCase, turn)) {
+                log.info("Test case {} leased bench {} after {} ms", 
+                        testCase.getTestCaseId(), lease.getBench().getBenchId(), lease.getWaitTimeMs());
+                long leaseStart = System.nanoTime();
+                
+                // Configure the signal generator, then take the spectrum analyzer (the previous test on this
+                // bench may still be analysing its capture) and configure it to match
+                configureSignalGenerator(testCase, lease);
+                long generatorConfigured = System.nanoTime();
+                lease.awaitSpectrumAnalyzer();
+                long analyzerStart = System.nanoTime();
+                configureSpectrumAnalyzer(testCase, lease);
+                long analyzerConfigured = System.nanoTime();
+                measurementPipeline.record(MeasurementPipeline.Stage.CONFIGURE_GENERATOR, generatorConfigured - leaseStart);
+                measurementPipeline.record(MeasurementPipeline.Stage.ANALYZER_WAIT, analyzerStart - generatorConfigured);
+                measurementPipeline.record(MeasurementPipeline.Stage.CONFIGURE_ANALYZER, analyzerConfigured - analyzerStart);
+                suitePlanner.recordConfiguration(suiteId,
+                        (generatorConfigured - leaseStart) + (analyzerConfigured - analyzerStart));
+                
+                // Perform measurements, watched by the acquisition monitor as they arrive
+                AcquisitionMonitor.Session monitor = acquisitionMonitor.start(
+                        execution, suiteId, testCase, getNumMeasurements(testCase));
+                List<Double> measurements = performMeasurements(testCase, lease, monitor);
+                measurementPipeline.record(MeasurementPipeline.Stage.POWER, System.nanoTime() - analyzerConfigured);
+                execution.setMeasurements(measurements);
+                execution.setPlannedSamples(getNumMeasurements(testCase));
+                execution.setSamplesSaved(monitor.getSamplesSaved());
+                
+                // EVM/ACPR from a signal capture; an aborted run is certain to fail, so they are skipped.
+                // A detached capture no longer needs the signal, so the bench goes to the next test while
+                // this one analyses it
+                boolean handedOff = false;
+                long generatorReleased = 0;
+                MeasurementPipeline.Analysis analysis = new MeasurementPipeline.Analysis(null, null);
+                SignalCapture capture = monitor.isAborted() ? null : captureSignal(lease);
+                if (capture != null) {
+                    if (capture.isDetached()) {
+                        generatorReleased = releaseSignalGenerator(lease, leaseStart);
+                        handedOff = true;
+                    }
+                    analysis = measurementPipeline.analyze(capture);
+                }
+                
+                // Done with both instruments; validation runs without holding them
+                if (!handedOff) {
+                    releaseSignalGenerator(lease, leaseStart);
+                }
+                lease.releaseSpectrumAnalyzer();
+                long instrumentsDone = System.nanoTime();
+                measurementPipeline.record(MeasurementPipeline.Stage.ANALYZER_HOLD, instrumentsDone - analyzerStart);
+                if (handedOff) {
+                    measurementPipeline.recordHandoff(instrumentsDone - generatorReleased);
+                }
+                
+                // Extract specific measurements
+                Double powerLevel = extractPowerLevel(measurements, testCase);
+                Double frequencyHz = extractFrequency(measurements, testCase);
+                Double evm = analysis.evm();
+                Double acpr = analysis.acpr();
+                
+                execution.setPowerLevel(powerLevel);
+                execution.setFrequencyHz(frequencyHz);
+                execution.setEvm(evm);
+                execution.setAcpr(acpr);
+                
+                // Validate results against expected values
+                String validationResult = monitor.isAborted() ? monitor.getAbortReason()
+                        : validateResults(testCase, powerLevel, frequencyHz, evm, acpr);
+                
+                if ("PASSED".equals(validationResult)) {
+                    execution.setStatus("PASSED");
+                    sendTestUpdate(executionId, suiteId, "PASSED", "Test passed successfully");
+                } else {
+                    execution.setStatus("FAILED");
+                    execution.setErrorMessage(validationResult);
+                    sendTestUpdate(executionId, suiteId, "FAILED", validationResult);
+                }
+                
+                execution.setTestLog(buildTestLog(testCase, monitor, measurements, powerLevel, frequencyHz, evm, acpr));
             }
             
-            execution.setTestLog(buildTestLog(testCase, measurements, powerLevel, frequencyHz, evm, acpr));
-            
         } catch (Exception e) {
             log.error("Error executing test case: {}", testCase.getTestCaseId(), e);
             execution.setStatus("ERROR");
             execution.setErrorMessage(e.getMessage());
-            sendTestUpdate(executionId, "ERROR", e.getMessage());
+            sendTestUpdate(executionId, suiteId, "ERROR", e.getMessage());
         } finally {
-            // Complete the execution
-            testExecutionService.completeExecution(executionId, execution.getStatus(), execution.getErrorMessage());
-            
-            // Publish to Kafka
-            kafkaTemplate.send("test-executions", execution);
+            // Complete the execution (persisted in the next write-behind batch)
+            executionWriteBehindService.complete(execution);
+            suitePlanner.recordCompletion(suiteId);
+            // Listeners update statistics and rollups, and queue the Kafka event (EventPublisher)
+            eventPublisher.publishEvent(new ExecutionCompletedEvent(execution, suiteId));
             
             log.info("Completed test execution for test case: {} with status: {}", 
                     testCase.getTestCaseId(), execution.getStatus());
         }
     }
 
-    private void configureInstrument(TestCase testCase) {
+    private void configureSignalGenerator(TestCase testCase, InstrumentLease lease) {
         // Use signal generator for generating test signals
-        InstrumentInterface signalGen = instrumentFactory.getInstrument("SIGGEN");
-        // Use spectrum analyzer for measurements
-        InstrumentInterface spectrumAnalyzer = instrumentFactory.getInstrument("SPECTRUM");
+        InstrumentInterface signalGen = lease.getSignalGenerator();
         
+        // The lease gives this test exclusive use of the generator, so no further locking is needed
         try {
-            // Initialize signal generator (synchronized to handle concurrent access)
-            synchronized (signalGen) {
-                if (!signalGen.isConnected()) {
-                    signalGen.initialize();
-                }
-            }
-            
-            // Initialize spectrum analyzer (synchronized to handle concurrent access)
-            synchronized (spectrumAnalyzer) {
-                if (!spectrumAnalyzer.isConnected()) {
-                    spectrumAnalyzer.initialize();
-                }
+            if (!signalGen.isConnected()) {
+                signalGen.initialize();
             }
             
             Map<String, String> parameters = testCase.getParameters();
             if (parameters != null && !parameters.isEmpty()) {
-                synchronized (signalGen) {
-                    for (Map.Entry<String, String> param : parameters.entrySet()) {
-                        signalGen.setParameter(param.getKey(), param.getValue());
-                    }
-                }
-                synchronized (spectrumAnalyzer) {
-                    for (Map.Entry<String, String> param : parameters.entrySet()) {
-                        spectrumAnalyzer.setParameter(param.getKey(), param.getValue());
-                    }
+                for (Map.Entry<String, String> param : parameters.entrySet()) {
+                    signalGen.setParameter(param.getKey(), param.getValue());
                 }
             }
             
             // Configure signal generator frequency and power
             if (testCase.getExpectedFrequencyHz() != null) {
-                synchronized (signalGen) {
-                    signalGen.setFrequency(testCase.getExpectedFrequencyHz());
-                }
-                // Set spectrum analyzer center frequency to match
-                synchronized (spectrumAnalyzer) {
-                    spectrumAnalyzer.setFrequency(testCase.getExpectedFrequencyHz());
-                }
+                signalGen.setFrequency(testCase.getExpectedFrequencyHz());
+            }
+            Double avgPower = SuitePlanner.targetPowerDbm(testCase);
+            if (avgPower != null) {
+                signalGen.setPowerLevel(avgPower);
             }
             
-            // Set signal generator power level if specified
-            if (testCase.getExpectedPowerMin() != null) {
-                double avgPower = (testCase.getExpectedPowerMin() + 
-                    (testCase.getExpectedPowerMax() != null ? testCase.getExpectedPowerMax() : testCase.getExpectedPowerMin())) / 2.0;
-                synchronized (signalGen) {
-                    signalGen.setPowerLevel(avgPower);
-                }
-                // Set spectrum analyzer reference level to match for accurate measurements
-                synchronized (spectrumAnalyzer) {
-                    spectrumAnalyzer.setPowerLevel(avgPower);
+            log.info("Configured Signal Generator for test case: {}", testCase.getTestCaseId());
+        } catch (Exception e) {
+            log.error("Error configuring signal generator for test case: {}", testCase.getTestCaseId(), e);
+            throw new RuntimeException("Failed to configure instruments: " + e.getMessage(), e);
+        }
+    }
+
+    private void configureSpectrumAnalyzer(TestCase testCase, InstrumentLease lease) {
+        // Use spectrum analyzer for measurements
+        InstrumentInterface spectrumAnalyzer = lease.getSpectrumAnalyzer();
+        
+        try {
+            if (!spectrumAnalyzer.isConnected()) {
+                spectrumAnalyzer.initialize();
+            }
+            
+            Map<String, String> parameters = testCase.getParameters();
+            if (parameters != null && !parameters.isEmpty()) {
+                for (Map.Entry<String, String> param : parameters.entrySet()) {
+                    spectrumAnalyzer.setParameter(param.getKey(), param.getValue());
                 }
             }
             
-            log.info("Configured Signal Generator and Spectrum Analyzer for test case: {}", testCase.getTestCaseId());
+            // Set spectrum analyzer center frequency to match the generator
+            if (testCase.getExpectedFrequencyHz() != null) {
+                spectrumAnalyzer.setFrequency(testCase.getExpectedFrequencyHz());
+            }
+            // Set spectrum analyzer reference level to match for accurate measurements
+            Double avgPower = SuitePlanner.targetPowerDbm(testCase);
+            if (avgPower != null) {
+                spectrumAnalyzer.setPowerLevel(avgPower);
+            }
+            
+            log.info("Configured Spectrum Analyzer for test case: {}", testCase.getTestCaseId());
         } catch (Exception e) {
-            log.error("Error configuring instruments for test case: {}", testCase.getTestCaseId(), e);
+            log.error("Error configuring spectrum analyzer for test case: {}", testCase.getTestCaseId(), e);
             throw new RuntimeException("Failed to configure instruments: " + e.getMessage(), e);
         }
     }
 
-    private List<Double> performMeasurements(TestCase testCase) {
-        List<Double> measurements = new ArrayList<>();
-        // Use spectrum analyzer for measurements (more accurate for RF measurements)
-        InstrumentInterface spectrumAnalyzer = instrumentFactory.getInstrument("SPECTRUM");
-        
+    private int getNumMeasurements(TestCase testCase) {
         // Perform multiple measurements for statistical analysis
         int numMeasurements = 10; // Default number of measurements
         
@@ -171,18 +251,61 @@ public class TestExecutor {
         if (params != null && params.containsKey("numMeasurements")) {
             numMeasurements = Integer.parseInt(params.get("numMeasurements"));
         }
+        return numMeasurements;
+    }
+
+    private List<Double> performMeasurements(TestCase testCase, InstrumentLease lease,
+                                             AcquisitionMonitor.Session monitor) {
+        List<Double> measurements = new ArrayList<>();
+        // Use spectrum analyzer for measurements (more accurate for RF measurements)
+        InstrumentInterface spectrumAnalyzer = lease.getSpectrumAnalyzer();
+        
+        int numMeasurements = getNumMeasurements(testCase);
+        Map<String, String> params = testCase.getParameters();
+        
+        long intervalMs = 100; // Small delay between measurements for stability
+        if (params != null && params.containsKey("measurementIntervalMs")) {
+            intervalMs = Long.parseLong(params.get("measurementIntervalMs"));
+        }
+        
+        if (spectrumAnalyzer.supportsBlockAcquisition()) {
+            // One round trip per chunk, so the monitor sees samples while the run is still in progress
+            int chunkSize = monitor.getChunkSize();
+            log.info("Acquiring {} measurements in blocks of {} using Spectrum Analyzer", numMeasurements, chunkSize);
+            double[] samples = new double[numMeasurements];
+            int count = 0;
+            try {
+                boolean proceed = true;
+                for (int acquired = 0; acquired < numMeasurements && proceed; acquired += chunkSize) {
+                    double[] block = spectrumAnalyzer.measurePowerBlock(
+                            Math.min(chunkSize, numMeasurements - acquired), TimeUnit.MILLISECONDS.toNanos(intervalMs));
+                    for (int i = 0; i < block.length && proceed; i++) {
+                        if (!Double.isNaN(block[i])) {
+                            samples[count++] = block[i];
+                            proceed = monitor.accept(block[i]);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Keep what was acquired before the failure, as the per-sample path does
+                log.warn("Error during block measurement after {} samples", count, e);
+            }
+            // Keep the samples primitive; the trace is stored packed without boxing
+            return MeasurementTrace.wrap(Arrays.copyOf(samples, count));
+        }
         
         log.info("Performing {} measurements using Spectrum Analyzer", numMeasurements);
         
         for (int i = 0; i < numMeasurements; i++) {
             try {
-                synchronized (spectrumAnalyzer) {
-                    Double measurement = spectrumAnalyzer.measurePower();
-                    if (measurement != null) {
-                        measurements.add(measurement);
+                Double measurement = spectrumAnalyzer.measurePower();
+                if (measurement != null) {
+                    measurements.add(measurement);
+                    if (!monitor.accept(measurement)) {
+                        break;
                     }
                 }
-                Thread.sleep(100); // Small delay between measurements for stability
+                Thread.sleep(intervalMs);
             } catch (Exception e) {
                 log.warn("Error during measurement", e);
                 break;
@@ -203,34 +326,27 @@ public class TestExecutor {
         return testCase.getExpectedFrequencyHz();
     }
 
-    private Double extractEVM(List<Double> measurements, TestCase testCase) {
-        // EVM measurement using Spectrum Analyzer (has demodulation capability)
+    private SignalCapture captureSignal(InstrumentLease lease) {
+        // Capture on the Spectrum Analyzer (has demodulation capability) for EVM and ACPR
+        long start = System.nanoTime();
         try {
-            InstrumentInterface spectrumAnalyzer = instrumentFactory.getInstrument("SPECTRUM");
-            synchronized (spectrumAnalyzer) {
-                Double evm = spectrumAnalyzer.measureEVM();
-                log.info("EVM measured: {}% using Spectrum Analyzer", evm);
-                return evm;
-            }
+            return lease.getSpectrumAnalyzer().captureSignal();
         } catch (Exception e) {
-            log.warn("Error measuring EVM", e);
+            log.warn("Error capturing signal for EVM/ACPR", e);
             return null;
+        } finally {
+            measurementPipeline.record(MeasurementPipeline.Stage.CAPTURE, System.nanoTime() - start);
         }
     }
 
-    private Double extractACPR(List<Double> measurements, TestCase testCase) {
-        // ACPR measurement using Spectrum Analyzer (ideal for adjacent channel measurements)
-        try {
-            InstrumentInterface spectrumAnalyzer = instrumentFactory.getInstrument("SPECTRUM");
-            synchronized (spectrumAnalyzer) {
-                Double acpr = spectrumAnalyzer.measureACPR();
-                log.info("ACPR measured: {} dB using Spectrum Analyzer", acpr);
-                return acpr;
-            }
-        } catch (Exception e) {
-            log.warn("Error measuring ACPR", e);
-            return null;
-        }
+    /**
+     * Hand the bench's generator to the next test; returns the release time
+     */
+    private long releaseSignalGenerator(InstrumentLease lease, long leaseStart) {
+        lease.releaseSignalGenerator();
+        long released = System.nanoTime();
+        measurementPipeline.record(MeasurementPipeline.Stage.GENERATOR_HOLD, released - leaseStart);
+        return released;
     }
 
     private String validateResults(TestCase testCase, Double powerLevel, Double frequencyHz, 
@@ -264,13 +380,15 @@ public class TestExecutor {
         return errors.length() > 0 ? errors.toString().trim() : "PASSED";
     }
 
-    private String buildTestLog(TestCase testCase, List<Double> measurements, 
+    private String buildTestLog(TestCase testCase, AcquisitionMonitor.Session monitor, List<Double> measurements, 
                                 Double powerLevel, Double frequencyHz, Double evm, Double acpr) {
         StringBuilder log = new StringBuilder();
         log.append(String.format("Test Case: %s (%s)\n", testCase.getTestCaseId(), testCase.getName()));
         log.append(String.format("Technology: %s\n", testCase.getTechnology()));
         log.append(String.format("Category: %s\n", testCase.getCategory()));
         log.append(String.format("Number of measurements: %d\n", measurements.size()));
+        log.append(String.format("Measurement mode: %s (%d samples saved)\n", 
+                monitor.isSequential() ? "sequential" : "fixed", monitor.getSamplesSaved()));
         log.append(String.format("Power Level: %.2f dBm\n", powerLevel != null ? powerLevel : 0.0));
         log.append(String.format("Frequency: %.2f Hz\n", frequencyHz != null ? frequencyHz : 0.0));
         log.append(String.format("EVM: %.2f%%\n", evm != null ? evm : 0.0));
@@ -278,18 +396,25 @@ public class TestExecutor {
         return log.toString();
     }
 
-    private void sendTestUpdate(Long executionId, String status, String message) {
+    private void sendTestUpdate(Long executionId, String suiteId, String status, String message) {
+        updateBroadcaster.submit(executionId, suiteId, status, message);
+    }
+
+    private InstrumentLease acquireLease(TestCase testCase, BenchTurn turn) throws InstrumentException {
+        if (turn == null) {
+            return leaseScheduler.acquire(testCase.getTechnology(), testCase.getExpectedFrequencyHz());
+        }
         try {
-            Map<String, Object> update = Map.of(
-                    "executionId", executionId,
-                    "status", status,
-                    "message", message,
-                    "timestamp", LocalDateTime.now().toString()
-            );
-            messagingTemplate.convertAndSend("/topic/test-updates", update);
-        } catch (Exception e) {
-            log.warn("Failed to send WebSocket update", e);
+            turn.previousLeased().join();
+            return leaseScheduler.acquireBench(turn.benchId());
+        } finally {
+            turn.leased().complete(null);
         }
     }
-}
 
+    /**
+     * A test's place in its bench's share of a suite plan: it waits for previousLeased and completes leased
+     */
+    record BenchTurn(String benchId, CompletableFuture<Void> previousLeased, CompletableFuture<Void> leased) {
+    }
+}
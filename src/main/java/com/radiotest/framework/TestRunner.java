@@ -1,14 +1,16 @@
 package com.radiotest.framework;
 
+import com.radiotest.messaging.EventPublisher;
+import com.radiotest.messaging.SuiteEvent;
 import com.radiotest.model.TestCase;
 import com.radiotest.service.TestCaseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -16,7 +18,8 @@ import java.util.Map;
 public class TestRunner {
     private final TestCaseService testCaseService;
     private final TestExecutor testExecutor;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SuitePlanner suitePlanner;
+    private final EventPublisher eventPublisher;
 
     public void runTest(String testCaseId) {
         TestCase testCase = testCaseService.getTestCaseByTestCaseId(testCaseId)
@@ -46,36 +49,64 @@ public class TestRunner {
         List<TestCase> testCases = testCaseService.getEnabledTestCasesByTechnology(technology);
         log.info("Running {} test cases for technology: {}", testCases.size(), technology);
         
-        for (TestCase testCase : testCases) {
-            testExecutor.executeTest(testCase);
-        }
+        SuitePlanner.SuitePlan plan = runSuite("Technology: " + technology, testCases);
         
         // Publish test suite start event
-        kafkaTemplate.send("test-suites", Map.of(
-                "technology", technology,
-                "testCaseCount", testCases.size(),
-                "status", "STARTED"
-        ));
+        eventPublisher.publishSuiteEvent(new SuiteEvent(plan.getSuiteId(), technology, testCases.size(), "STARTED"));
     }
 
     public void runTestsByCategory(String category) {
-        List<TestCase> testCases = testCaseService.getTestCasesByCategory(category);
+        List<TestCase> testCases = testCaseService.getTestCasesByCategory(category).stream()
+                .filter(TestCase::getEnabled)
+                .collect(Collectors.toList());
         log.info("Running {} test cases for category: {}", testCases.size(), category);
         
-        for (TestCase testCase : testCases) {
-            if (testCase.getEnabled()) {
-                testExecutor.executeTest(testCase);
-            }
-        }
+        runSuite("Category: " + category, testCases);
     }
 
     public void runAllEnabledTests() {
         List<TestCase> testCases = testCaseService.getEnabledTestCases();
         log.info("Running {} enabled test cases", testCases.size());
         
-        for (TestCase testCase : testCases) {
-            testExecutor.executeTest(testCase);
+        runSuite("All enabled tests", testCases);
+    }
+
+    public List<Map<String, Object>> getSuiteReports() {
+        return suitePlanner.getSuiteReports();
+    }
+
+    public Optional<Map<String, Object>> getSuiteReport(String suiteId) {
+        return suitePlanner.getSuite(suiteId).map(SuitePlanner.SuitePlan::toReport);
+    }
+
+    private SuitePlanner.SuitePlan runSuite(String suiteName, List<TestCase> testCases) {
+        // Split into bench shares ordered to minimize instrument retuning
+        SuitePlanner.SuitePlan plan = suitePlanner.plan(suiteName, testCases);
+
+        // Each test leases its planned bench only after the test before it in that share has, so the pool
+        // cannot reorder a share; shares are dispatched round-robin so every bench starts right away
+        List<Iterator<TestCase>> shares = new ArrayList<>();
+        List<String> benchIds = new ArrayList<>();
+        plan.getBenchShares().forEach((benchId, share) -> {
+            benchIds.add(benchId);
+            shares.add(share.iterator());
+        });
+        List<CompletableFuture<Void>> previousLeased = new ArrayList<>(
+                Collections.nCopies(shares.size(), CompletableFuture.completedFuture(null)));
+        boolean dispatched = true;
+        while (dispatched) {
+            dispatched = false;
+            for (int i = 0; i < shares.size(); i++) {
+                if (shares.get(i).hasNext()) {
+                    CompletableFuture<Void> leased = new CompletableFuture<>();
+                    testExecutor.executeTest(shares.get(i).next(), plan.getSuiteId(),
+                            new TestExecutor.BenchTurn(benchIds.get(i), previousLeased.get(i), leased));
+                    previousLeased.set(i, leased);
+                    dispatched = true;
+                }
+            }
         }
+        return plan;
     }
 }
 
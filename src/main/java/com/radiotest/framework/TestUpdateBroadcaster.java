@@ -0,0 +1,224 @@
+package com.radiotest.framework;
+
+import com.radiotest.messaging.AlertEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces test status updates into one WebSocket frame per tick.
+ * Test threads only record the latest state of an execution; a scheduled flush sends every changed
+ * execution and a progress summary of every suite touched since the last tick in a single frame on
+ * /topic/test-updates. An execution that changes state several times within a tick is sent once,
+ * with its newest state, so slow subscribers never have to catch up on superseded states.
+ * Acquisition alerts are not coalesced; they ride along in the next frame, up to a bound per frame.
+ */
+@Component
+@Slf4j
+public class TestUpdateBroadcaster {
+    public static final String UPDATES_TOPIC = "/topic/test-updates";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SuitePlanner suitePlanner;
+    private final int maxUpdatesPerFrame;
+
+    private final Map<Long, TestUpdate> pending = new ConcurrentHashMap<>();
+    private final Map<String, SuiteProgress> suites = new ConcurrentHashMap<>();
+    private final Set<String> changedSuites = ConcurrentHashMap.newKeySet();
+    private final Queue<Map<String, Object>> alerts = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder framesFailed = new LongAdder();
+    private final LongAdder updatesSent = new LongAdder();
+    private final LongAdder alertsSent = new LongAdder();
+    private final LongAdder alertsDropped = new LongAdder();
+    private final AtomicInteger largestFrame = new AtomicInteger();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    public TestUpdateBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                 SuitePlanner suitePlanner,
+                                 @Value("${radiotest.websocket.max-updates-per-frame:500}") int maxUpdatesPerFrame) {
+        this.messagingTemplate = messagingTemplate;
+        this.suitePlanner = suitePlanner;
+        this.maxUpdatesPerFrame = maxUpdatesPerFrame;
+    }
+
+    /**
+     * Record the latest state of an execution for the next frame; never blocks on the broker
+     */
+    public void submit(Long executionId, String suiteId, String status, String message) {
+        submitted.increment();
+        if (suiteId != null) {
+            suites.computeIfAbsent(suiteId, SuiteProgress::new).record(executionId, status);
+            changedSuites.add(suiteId);
+        }
+        TestUpdate previous = pending.put(executionId,
+                new TestUpdate(executionId, suiteId, status, message, LocalDateTime.now().toString()));
+        if (previous != null) {
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Queue an acquisition alert for the next frame; alerts beyond one full frame's worth are dropped
+     */
+    public void submitAlert(AlertEvent alert) {
+        if (alerts.size() >= maxUpdatesPerFrame) {
+            alertsDropped.increment();
+            return;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("executionId", alert.getExecutionId());
+        map.put("suiteId", alert.getSuiteId());
+        map.put("testCaseId", alert.getTestCaseId());
+        map.put("metric", alert.getMetric());
+        map.put("sampleIndex", alert.getSampleIndex());
+        map.put("value", alert.getValue());
+        map.put("expected", alert.getExpected());
+        map.put("score", alert.getScore());
+        map.put("detector", alert.getDetector());
+        map.put("severity", alert.getSeverity());
+        map.put("action", alert.getAction());
+        map.put("message", alert.getMessage());
+        map.put("timestamp", alert.getTime() != null ? alert.getTime().toString() : null);
+        alerts.add(map);
+    }
+
+    @Scheduled(fixedDelayString = "${radiotest.websocket.flush-interval-ms:100}")
+    public void flush() {
+        if (pending.isEmpty() && changedSuites.isEmpty() && alerts.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Map<String, Object>> updates = new ArrayList<>();
+        Iterator<Long> executionIds = pending.keySet().iterator();
+        while (executionIds.hasNext() && updates.size() < maxUpdatesPerFrame) {
+            TestUpdate update = pending.remove(executionIds.next());
+            if (update != null) {
+                updates.add(update.toMap());
+            }
+        }
+        List<Map<String, Object>> suiteSummaries = new ArrayList<>();
+        for (Iterator<String> suiteIds = changedSuites.iterator(); suiteIds.hasNext(); ) {
+            String suiteId = suiteIds.next();
+            suiteIds.remove();
+            SuiteProgress progress = suites.get(suiteId);
+            if (progress != null) {
+                suiteSummaries.add(progress.toMap());
+                if (progress.isComplete()) {
+                    suites.remove(suiteId);
+                }
+            }
+        }
+
+        List<Map<String, Object>> frameAlerts = new ArrayList<>();
+        Map<String, Object> alert;
+        while (frameAlerts.size() < maxUpdatesPerFrame && (alert = alerts.poll()) != null) {
+            frameAlerts.add(alert);
+        }
+
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("timestamp", LocalDateTime.now().toString());
+        frame.put("updates", updates);
+        frame.put("suites", suiteSummaries);
+        frame.put("alerts", frameAlerts);
+        try {
+            messagingTemplate.convertAndSend(UPDATES_TOPIC, frame);
+            framesSent.increment();
+            updatesSent.add(updates.size());
+            alertsSent.add(frameAlerts.size());
+            largestFrame.accumulateAndGet(updates.size(), Math::max);
+        } catch (Exception e) {
+            // Progress summaries are absolute, so the next frame corrects any subscriber that missed this one
+            framesFailed.increment();
+            log.warn("Failed to send WebSocket update frame ({} updates)", updates.size(), e);
+        }
+        lastFlushNanos.set(System.nanoTime() - start);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("submitted", submitted.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("pending", pending.size());
+        stats.put("activeSuites", suites.size());
+        stats.put("framesSent", framesSent.sum());
+        stats.put("framesFailed", framesFailed.sum());
+        stats.put("updatesSent", updatesSent.sum());
+        stats.put("alertsSent", alertsSent.sum());
+        stats.put("alertsDropped", alertsDropped.sum());
+        long frames = framesSent.sum();
+        stats.put("averageUpdatesPerFrame", frames > 0 ? (double) updatesSent.sum() / frames : 0.0);
+        stats.put("largestFrame", largestFrame.get());
+        stats.put("maxUpdatesPerFrame", maxUpdatesPerFrame);
+        stats.put("lastFlushMs", lastFlushNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    private record TestUpdate(Long executionId, String suiteId, String status, String message, String timestamp) {
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("executionId", executionId);
+            map.put("suiteId", suiteId);
+            map.put("status", status);
+            map.put("message", message);
+            map.put("timestamp", timestamp);
+            return map;
+        }
+    }
+
+    /**
+     * Running/passed/failed/error counts of one suite, keyed off each execution's latest status
+     */
+    private class SuiteProgress {
+        private final String suiteId;
+        private final Map<Long, String> statuses = new HashMap<>(); // guarded by this
+
+        SuiteProgress(String suiteId) {
+            this.suiteId = suiteId;
+        }
+
+        synchronized void record(Long executionId, String status) {
+            statuses.put(executionId, status);
+        }
+
+        /**
+         * All tests finished, or the planner no longer tracks the suite
+         */
+        synchronized boolean isComplete() {
+            int total = totalTests();
+            return total == 0 || (statuses.size() >= total && !statuses.containsValue("RUNNING"));
+        }
+
+        private int totalTests() {
+            return suitePlanner.getSuite(suiteId).map(SuitePlanner.SuitePlan::getTotalTests).orElse(0);
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Integer> counts = new TreeMap<>();
+            statuses.values().forEach(status -> counts.merge(status, 1, Integer::sum));
+            int total = totalTests();
+            int finished = statuses.size() - counts.getOrDefault("RUNNING", 0);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("suiteId", suiteId);
+            map.put("suiteName", suitePlanner.getSuite(suiteId).map(SuitePlanner.SuitePlan::getSuiteName).orElse(null));
+            map.put("totalTests", total);
+            map.put("completedTests", finished);
+            map.put("statusCounts", counts);
+            map.put("percentComplete", total > 0 ? 100.0 * finished / total : null);
+            return map;
+        }
+    }
+}
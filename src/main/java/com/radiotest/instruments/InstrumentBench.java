@@ -0,0 +1,79 @@
+package com.radiotest.instruments;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A physical test bench: one signal generator wired to one spectrum analyzer.
+ * Benches are the unit of reservation for the lease scheduler. A bench may declare an
+ * affinity for technologies and/or a frequency band; benches without one accept any test.
+ * The spectrum analyzer has its own permit, so a lease can hand the bench on while it finishes
+ * analysing a detached capture (see {@link InstrumentLease#releaseSignalGenerator()}).
+ * The instruments themselves are only reachable inside this package; tests get them from a lease.
+ */
+@Getter
+public class InstrumentBench {
+    private final String benchId;
+    @Getter(AccessLevel.PACKAGE)
+    private final InstrumentInterface signalGenerator;
+    @Getter(AccessLevel.PACKAGE)
+    private final InstrumentInterface spectrumAnalyzer;
+    private final Set<String> technologies;
+    private final Double minFrequencyHz;
+    private final Double maxFrequencyHz;
+    @Getter(AccessLevel.PACKAGE)
+    private final Semaphore analyzerPermit = new Semaphore(1);
+
+    public InstrumentBench(String benchId, InstrumentInterface signalGenerator, InstrumentInterface spectrumAnalyzer) {
+        this(benchId, signalGenerator, spectrumAnalyzer, Set.of(), null, null);
+    }
+
+    public InstrumentBench(String benchId, InstrumentInterface signalGenerator, InstrumentInterface spectrumAnalyzer,
+                           Set<String> technologies, Double minFrequencyHz, Double maxFrequencyHz) {
+        this.benchId = benchId;
+        this.signalGenerator = signalGenerator;
+        this.spectrumAnalyzer = spectrumAnalyzer;
+        this.technologies = technologies;
+        this.minFrequencyHz = minFrequencyHz;
+        this.maxFrequencyHz = maxFrequencyHz;
+    }
+
+    /**
+     * Get an instrument on this bench by type (SIGGEN / SPECTRUM)
+     */
+    InstrumentInterface getInstrument(String instrumentType) {
+        return switch (instrumentType.toUpperCase()) {
+            case "SPECTRUM_ANALYZER", "SPECTRUM" -> spectrumAnalyzer;
+            default -> signalGenerator;
+        };
+    }
+
+    /**
+     * Whether this bench is dedicated to particular technologies or a frequency band
+     */
+    public boolean hasAffinity() {
+        return !technologies.isEmpty() || minFrequencyHz != null || maxFrequencyHz != null;
+    }
+
+    /**
+     * Whether a test for the given technology/frequency matches this bench's affinity
+     */
+    public boolean matches(String technology, Double frequencyHz) {
+        if (technology != null && technologies.contains(technology.toUpperCase())) {
+            return true;
+        }
+        if (frequencyHz == null || (minFrequencyHz == null && maxFrequencyHz == null)) {
+            return false;
+        }
+        return (minFrequencyHz == null || frequencyHz >= minFrequencyHz)
+                && (maxFrequencyHz == null || frequencyHz <= maxFrequencyHz);
+    }
+
+    @Override
+    public String toString() {
+        return benchId;
+    }
+}
@@ -1,27 +1,129 @@
 package com.radiotest.instruments;
 
-import lombok.RequiredArgsConstructor;
+import com.radiotest.config.InstrumentPoolProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+import java.util.stream.Collectors;
+
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class InstrumentFactory {
-    private final SignalGenerator signalGenerator;
-    private final SpectrumAnalyzer spectrumAnalyzer;
-
-    public InstrumentInterface getInstrument(String instrumentType) {
-        return switch (instrumentType.toUpperCase()) {
-            case "SIGNAL_GENERATOR", "SIGGEN" -> signalGenerator;
-            case "SPECTRUM_ANALYZER", "SPECTRUM" -> spectrumAnalyzer;
-            default -> {
-                // Default to signal generator for test execution
-                yield signalGenerator;
+    private final boolean shadowStateEnabled;
+    private final List<InstrumentBench> benches;
+
+    public InstrumentFactory(InstrumentPoolProperties poolProperties) {
+        this.shadowStateEnabled = poolProperties.isShadowState();
+        this.benches = List.copyOf(createBenches(poolProperties));
+        log.info("Instrument pool initialized with {} bench(es): {}", benches.size(), benches);
+    }
+
+    /**
+     * Connection status of one instrument type on every bench. Status only: instruments are driven
+     * solely through a lease from the InstrumentLeaseScheduler and are never handed out here
+     */
+    public Map<String, Boolean> getConnectionStatus(String instrumentType) {
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        for (InstrumentBench bench : benches) {
+            status.put(bench.getBenchId(), bench.getInstrument(instrumentType).isConnected());
+        }
+        return status;
+    }
+
+    public int getBenchCount() {
+        return benches.size();
+    }
+
+    /**
+     * All benches (signal generator + spectrum analyzer pairs), for the lease scheduler only
+     */
+    List<InstrumentBench> getBenches() {
+        return benches;
+    }
+
+    /**
+     * Ids of the benches a test may run on (see {@link #getBenchesFor})
+     */
+    public List<String> getBenchIdsFor(String technology, Double frequencyHz) {
+        return getBenchesFor(technology, frequencyHz).stream()
+                .map(InstrumentBench::getBenchId)
+                .collect(Collectors.toList());
+    }
+
+    Optional<InstrumentBench> getBench(String benchId) {
+        return benches.stream().filter(bench -> bench.getBenchId().equals(benchId)).findFirst();
+    }
+
+    /**
+     * Benches a test may run on: benches whose technology or frequency-band affinity matches,
+     * otherwise the general-purpose benches, otherwise every bench
+     */
+    List<InstrumentBench> getBenchesFor(String technology, Double frequencyHz) {
+        List<InstrumentBench> matching = benches.stream()
+                .filter(bench -> bench.matches(technology, frequencyHz))
+                .collect(Collectors.toList());
+        if (!matching.isEmpty()) {
+            return matching;
+        }
+        List<InstrumentBench> general = benches.stream()
+                .filter(bench -> !bench.hasAffinity())
+                .collect(Collectors.toList());
+        return general.isEmpty() ? benches : general;
+    }
+
+    /**
+     * Shadow-state cache statistics per bench and instrument type
+     */
+    public Map<String, Object> getShadowStateStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (InstrumentBench bench : benches) {
+            Map<String, Object> benchStats = new LinkedHashMap<>();
+            if (bench.getSignalGenerator() instanceof ShadowStateInstrument shadow) {
+                benchStats.put("SIGGEN", shadow.getStatistics());
+            }
+            if (bench.getSpectrumAnalyzer() instanceof ShadowStateInstrument shadow) {
+                benchStats.put("SPECTRUM", shadow.getStatistics());
             }
-        };
+            stats.put(bench.getBenchId(), benchStats);
+        }
+        return stats;
     }
 
-    public InstrumentInterface getDefaultInstrument() {
-        return signalGenerator;
+    private List<InstrumentBench> createBenches(InstrumentPoolProperties poolProperties) {
+        List<InstrumentBench> created = new ArrayList<>();
+        List<InstrumentPoolProperties.Bench> configured = poolProperties.getBenches();
+
+        if (configured.isEmpty()) {
+            int count = Math.max(1, poolProperties.getSimulatedBenches());
+            for (int i = 0; i < count; i++) {
+                created.add(createSimulatedBench(i, "bench-" + i, Set.of(), null, null));
+            }
+            return created;
+        }
+
+        for (int i = 0; i < configured.size(); i++) {
+            InstrumentPoolProperties.Bench bench = configured.get(i);
+            Set<String> technologies = bench.getTechnologies().stream()
+                    .map(String::toUpperCase)
+                    .collect(Collectors.toUnmodifiableSet());
+            String benchId = bench.getId() != null ? bench.getId() : "bench-" + i;
+            created.add(createSimulatedBench(i, benchId, technologies,
+                    bench.getMinFrequencyHz(), bench.getMaxFrequencyHz()));
+        }
+        return created;
     }
-}
 
+    private InstrumentBench createSimulatedBench(int index, String benchId, Set<String> technologies,
+                                                 Double minFrequencyHz, Double maxFrequencyHz) {
+        // Instruments are created here rather than injected, so only leases can reach them
+        String suffix = String.format("%03d", index + 1);
+        InstrumentInterface siggen = new SignalGenerator("SIGGEN-SIM-" + suffix);
+        InstrumentInterface spectrum = new SpectrumAnalyzer("SPECTRUM-ANALYZER-SIM-" + suffix);
+        if (shadowStateEnabled) {
+            siggen = new ShadowStateInstrument(siggen);
+            spectrum = new ShadowStateInstrument(spectrum);
+        }
+        return new InstrumentBench(benchId, siggen, spectrum, technologies, minFrequencyHz, maxFrequencyHz);
+    }
+}
@@ -1,5 +1,7 @@
 package com.radiotest.instruments;
 
+import java.util.concurrent.TimeUnit;
+
 public interface InstrumentInterface {
     /**
      * Initialize the instrument connection
@@ -36,6 +38,11 @@ public interface InstrumentInterface {
      */
     void setPowerLevel(Double powerDbm) throws InstrumentException;
 
+    /**
+     * Get the current power level in dBm
+     */
+    Double getPowerLevel() throws InstrumentException;
+
     /**
      * Measure power level in dBm
      */
@@ -51,6 +58,14 @@ public interface InstrumentInterface {
      */
     Double measureACPR() throws InstrumentException;
 
+    /**
+     * Capture the current signal for EVM and ACPR analysis. Analyzers that demodulate a stored IQ record
+     * return a detached capture; the default measures live on this instrument.
+     */
+    default SignalCapture captureSignal() throws InstrumentException {
+        return SignalCapture.live(this);
+    }
+
     /**
      * Measure frequency offset in Hz
      */
@@ -70,5 +85,97 @@ public interface InstrumentInterface {
      * Get instrument identification string
      */
     String getInstrumentId() throws InstrumentException;
-}
 
+    /**
+     * Whether block and sweep acquisitions are performed natively in a single instrument call.
+     * Instruments that return false fall back to one measurePower() round trip per sample.
+     */
+    default boolean supportsBlockAcquisition() {
+        return false;
+    }
+
+    /**
+     * Measure a block of power samples in dBm, spaced intervalNs apart.
+     * Samples that could not be measured are returned as NaN.
+     */
+    default double[] measurePowerBlock(int count, long intervalNs) throws InstrumentException {
+        double[] block = new double[count];
+        for (int i = 0; i < count; i++) {
+            Double measurement = measurePower();
+            block[i] = measurement != null ? measurement : Double.NaN;
+            if (intervalNs > 0 && i < count - 1) {
+                pause(intervalNs);
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Measure power in dBm at each point of a frequency sweep (points evenly spaced, inclusive).
+     * The frequency and power level in effect before the sweep are restored afterwards, even if it fails.
+     */
+    default double[] measureFrequencySweep(double startHz, double stopHz, int points) throws InstrumentException {
+        requireSweepPoints(points);
+        Double originalFrequency = getFrequency();
+        double[] trace = new double[points];
+        try {
+            for (int i = 0; i < points; i++) {
+                setFrequency(sweepPoint(startHz, stopHz, points, i));
+                Double measurement = measurePower();
+                trace[i] = measurement != null ? measurement : Double.NaN;
+            }
+        } finally {
+            if (originalFrequency != null) {
+                setFrequency(originalFrequency);
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Measure power in dBm at each level of a power sweep (levels evenly spaced, inclusive).
+     * The frequency and power level in effect before the sweep are restored afterwards, even if it fails.
+     */
+    default double[] measurePowerSweep(double startDbm, double stopDbm, int points) throws InstrumentException {
+        requireSweepPoints(points);
+        Double originalPowerLevel = getPowerLevel();
+        double[] trace = new double[points];
+        try {
+            for (int i = 0; i < points; i++) {
+                setPowerLevel(sweepPoint(startDbm, stopDbm, points, i));
+                Double measurement = measurePower();
+                trace[i] = measurement != null ? measurement : Double.NaN;
+            }
+        } finally {
+            if (originalPowerLevel != null) {
+                setPowerLevel(originalPowerLevel);
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Value of the i-th of {@code points} evenly spaced sweep points between start and stop
+     */
+    static double sweepPoint(double start, double stop, int points, int i) {
+        return points > 1 ? start + (stop - start) * i / (points - 1) : start;
+    }
+
+    /**
+     * Reject sweeps without a single point; every sweep implementation checks this first
+     */
+    static void requireSweepPoints(int points) {
+        if (points < 1) {
+            throw new IllegalArgumentException("Sweep needs at least one point, got " + points);
+        }
+    }
+
+    private static void pause(long intervalNs) throws InstrumentException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(intervalNs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException("Interrupted during block acquisition", e);
+        }
+    }
+}
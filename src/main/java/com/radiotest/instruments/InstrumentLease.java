@@ -0,0 +1,104 @@
+package com.radiotest.instruments;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exclusive reservation of a bench for one test's configure-measure sequence.
+ * The lease owns the signal generator from the start; the spectrum analyzer is taken with
+ * {@link #awaitSpectrumAnalyzer()}, since the previous lease of the bench may still be analysing
+ * a detached capture on it. Each instrument can be released as soon as the test is done with it;
+ * the lease stays active until both are released. Always close the lease, preferably with
+ * try-with-resources, so anything still held is released.
+ */
+public class InstrumentLease implements AutoCloseable {
+    private final InstrumentLeaseScheduler scheduler;
+    @Getter
+    private final InstrumentBench bench;
+    @Getter
+    private final long waitTimeMs;
+    private final long analyzerTimeoutMs;
+    private final AtomicBoolean generatorReleased = new AtomicBoolean(false);
+    private final AtomicBoolean analyzerHeld = new AtomicBoolean(false);
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+
+    InstrumentLease(InstrumentLeaseScheduler scheduler, InstrumentBench bench, long waitTimeMs, long analyzerTimeoutMs) {
+        this.scheduler = scheduler;
+        this.bench = bench;
+        this.waitTimeMs = waitTimeMs;
+        this.analyzerTimeoutMs = analyzerTimeoutMs;
+    }
+
+    public InstrumentInterface getSignalGenerator() {
+        if (generatorReleased.get()) {
+            throw new IllegalStateException("Signal generator of bench " + bench.getBenchId() + " already released");
+        }
+        return bench.getSignalGenerator();
+    }
+
+    /**
+     * The spectrum analyzer, once taken with {@link #awaitSpectrumAnalyzer()}
+     */
+    public InstrumentInterface getSpectrumAnalyzer() {
+        if (!analyzerHeld.get()) {
+            throw new IllegalStateException("Spectrum analyzer of bench " + bench.getBenchId() + " not yet acquired");
+        }
+        return bench.getSpectrumAnalyzer();
+    }
+
+    /**
+     * Wait until the previous lease of this bench has finished with the spectrum analyzer, then take it
+     */
+    public InstrumentInterface awaitSpectrumAnalyzer() throws InstrumentException {
+        if (analyzerHeld.get()) {
+            return bench.getSpectrumAnalyzer();
+        }
+        try {
+            if (!bench.getAnalyzerPermit().tryAcquire(analyzerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new InstrumentException("Timed out after " + analyzerTimeoutMs +
+                        " ms waiting for the spectrum analyzer of bench " + bench.getBenchId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException("Interrupted while waiting for the spectrum analyzer", e);
+        }
+        analyzerHeld.set(true);
+        return bench.getSpectrumAnalyzer();
+    }
+
+    /**
+     * Hand the bench to the next waiting test while keeping the spectrum analyzer, once this test no
+     * longer needs the generator's signal. The next test configures the generator, then waits in
+     * {@link #awaitSpectrumAnalyzer()} until this lease is closed.
+     */
+    public void releaseSignalGenerator() {
+        if (generatorReleased.compareAndSet(false, true)) {
+            scheduler.release(bench);
+            endIfReleased();
+        }
+    }
+
+    /**
+     * Let the next lease of this bench take the spectrum analyzer
+     */
+    public void releaseSpectrumAnalyzer() {
+        if (analyzerHeld.compareAndSet(true, false)) {
+            bench.getAnalyzerPermit().release();
+            endIfReleased();
+        }
+    }
+
+    @Override
+    public void close() {
+        releaseSpectrumAnalyzer();
+        releaseSignalGenerator();
+    }
+
+    private void endIfReleased() {
+        if (generatorReleased.get() && !analyzerHeld.get() && ended.compareAndSet(false, true)) {
+            scheduler.leaseEnded();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.radiotest.instruments;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out exclusive bench leases to test executions.
+ * Waiters are served strictly first-come-first-served: a released bench goes to the
+ * oldest waiter that can use it, so no test can interleave settings with another.
+ */
+@Component
+@Slf4j
+public class InstrumentLeaseScheduler {
+    private final InstrumentFactory instrumentFactory;
+    private final long leaseTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final Set<InstrumentBench> freeBenches = new LinkedHashSet<>();
+    private final Set<InstrumentBench> leasedBenches = new HashSet<>();
+
+    private final AtomicInteger activeLeases = new AtomicInteger(); // until both instruments are released
+    private final LongAdder totalLeases = new LongAdder();
+    private final LongAdder queuedLeases = new LongAdder();
+    private final LongAdder totalWaitMs = new LongAdder();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final Map<String, LongAdder> leasesPerBench = new ConcurrentHashMap<>();
+
+    public InstrumentLeaseScheduler(InstrumentFactory instrumentFactory,
+                                    @Value("${radiotest.instruments.lease-timeout-ms:300000}") long leaseTimeoutMs) {
+        this.instrumentFactory = instrumentFactory;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.freeBenches.addAll(instrumentFactory.getBenches());
+    }
+
+    /**
+     * Reserve any bench, waiting in FIFO order until one is free
+     */
+    public InstrumentLease acquire() throws InstrumentException {
+        return acquire(instrumentFactory.getBenches());
+    }
+
+    /**
+     * Reserve a bench routed by technology / frequency-band affinity
+     */
+    public InstrumentLease acquire(String technology, Double frequencyHz) throws InstrumentException {
+        return acquire(instrumentFactory.getBenchesFor(technology, frequencyHz));
+    }
+
+    /**
+     * Reserve one particular bench, waiting in FIFO order until it is free
+     */
+    public InstrumentLease acquireBench(String benchId) throws InstrumentException {
+        InstrumentBench bench = instrumentFactory.getBench(benchId)
+                .orElseThrow(() -> new InstrumentException("Unknown instrument bench: " + benchId));
+        return acquire(List.of(bench));
+    }
+
+    /**
+     * Reserve one of the given candidate benches, waiting in FIFO order until one is free
+     */
+    public InstrumentLease acquire(Collection<InstrumentBench> candidates) throws InstrumentException {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new InstrumentException("No instrument bench available for lease");
+        }
+        long startNanos = System.nanoTime();
+        InstrumentBench bench;
+
+        lock.lock();
+        try {
+            bench = takeFreeBench(candidates);
+            if (bench == null) {
+                bench = awaitBench(new Waiter(candidates, lock.newCondition()));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        activeLeases.incrementAndGet();
+        totalLeases.increment();
+        leasesPerBench.computeIfAbsent(bench.getBenchId(), id -> new LongAdder()).increment();
+        totalWaitMs.add(waitMs);
+        maxWaitMs.accumulateAndGet(waitMs, Math::max);
+        log.debug("Leased bench {} after waiting {} ms", bench.getBenchId(), waitMs);
+        return new InstrumentLease(this, bench, waitMs, leaseTimeoutMs);
+    }
+
+    void release(InstrumentBench bench) {
+        lock.lock();
+        try {
+            leasedBenches.remove(bench);
+            for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+                Waiter waiter = it.next();
+                if (waiter.candidates.contains(bench)) {
+                    it.remove();
+                    waiter.granted = bench;
+                    leasedBenches.add(bench);
+                    waiter.condition.signal();
+                    return;
+                }
+            }
+            freeBenches.add(bench);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void leaseEnded() {
+        activeLeases.decrementAndGet();
+    }
+
+    /**
+     * Lease statistics: queue depth, active leases and wait times
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.lock();
+        try {
+            stats.put("benchCount", freeBenches.size() + leasedBenches.size());
+            stats.put("leasedGenerators", leasedBenches.size());
+            stats.put("queueDepth", waiters.size());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("activeLeases", activeLeases.get());
+        long leases = totalLeases.sum();
+        stats.put("totalLeases", leases);
+        stats.put("queuedLeases", queuedLeases.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("averageWaitMs", leases > 0 ? (double) totalWaitMs.sum() / leases : 0.0);
+        stats.put("maxWaitMs", maxWaitMs.get());
+        Map<String, Long> perBench = new TreeMap<>();
+        leasesPerBench.forEach((benchId, count) -> perBench.put(benchId, count.sum()));
+        stats.put("leasesPerBench", perBench);
+        return stats;
+    }
+
+    private InstrumentBench takeFreeBench(Collection<InstrumentBench> candidates) {
+        for (InstrumentBench bench : candidates) {
+            if (freeBenches.remove(bench)) {
+                leasedBenches.add(bench);
+                return bench;
+            }
+        }
+        return null;
+    }
+
+    private InstrumentBench awaitBench(Waiter waiter) throws InstrumentException {
+        waiters.addLast(waiter);
+        queuedLeases.increment();
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMs);
+        try {
+            while (waiter.granted == null) {
+                if (remainingNanos <= 0) {
+                    waiters.remove(waiter);
+                    timeouts.increment();
+                    throw new InstrumentException("Timed out after " + leaseTimeoutMs + " ms waiting for an instrument bench");
+                }
+                remainingNanos = waiter.condition.awaitNanos(remainingNanos);
+            }
+            return waiter.granted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            waiters.remove(waiter);
+            if (waiter.granted != null) {
+                // Granted concurrently with the interrupt - hand it on to the next waiter
+                release(waiter.granted);
+            }
+            throw new InstrumentException("Interrupted while waiting for an instrument bench", e);
+        }
+    }
+
+    private static class Waiter {
+        private final Collection<InstrumentBench> candidates;
+        private final Condition condition;
+        private InstrumentBench granted;
+
+        Waiter(Collection<InstrumentBench> candidates, Condition condition) {
+            this.candidates = candidates;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.radiotest.instruments;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that remembers the last state written to an instrument and skips writes
+ * that would not change it. Every skipped write saves a SCPI round trip on real hardware.
+ * The shadow is dropped whenever the instrument state becomes unknown: initialize, reset,
+ * close, and any failed write or sweep. Completed sweeps restore the state and keep the shadow.
+ */
+@Slf4j
+public class ShadowStateInstrument implements InstrumentInterface {
+    private static final String FREQUENCY_KEY = "__frequency";
+    private static final String POWER_LEVEL_KEY = "__powerLevel";
+
+    private final InstrumentInterface delegate;
+    private final Map<String, Object> shadow = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ShadowStateInstrument(InstrumentInterface delegate) {
+        this.delegate = delegate;
+    }
+
+    public InstrumentInterface getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void initialize() throws InstrumentException {
+        invalidate();
+        delegate.initialize();
+    }
+
+    @Override
+    public void close() throws InstrumentException {
+        invalidate();
+        delegate.close();
+    }
+
+    @Override
+    public void setParameter(String key, String value) throws InstrumentException {
+        write(key, value, () -> delegate.setParameter(key, value));
+    }
+
+    @Override
+    public String getParameter(String key) throws InstrumentException {
+        return delegate.getParameter(key);
+    }
+
+    @Override
+    public void setFrequency(Double frequencyHz) throws InstrumentException {
+        write(FREQUENCY_KEY, frequencyHz, () -> delegate.setFrequency(frequencyHz));
+    }
+
+    @Override
+    public Double getFrequency() throws InstrumentException {
+        return delegate.getFrequency();
+    }
+
+    @Override
+    public void setPowerLevel(Double powerDbm) throws InstrumentException {
+        write(POWER_LEVEL_KEY, powerDbm, () -> delegate.setPowerLevel(powerDbm));
+    }
+
+    @Override
+    public Double getPowerLevel() throws InstrumentException {
+        return delegate.getPowerLevel();
+    }
+
+    @Override
+    public Double measurePower() throws InstrumentException {
+        return delegate.measurePower();
+    }
+
+    @Override
+    public Double measureEVM() throws InstrumentException {
+        return delegate.measureEVM();
+    }
+
+    @Override
+    public Double measureACPR() throws InstrumentException {
+        return delegate.measureACPR();
+    }
+
+    @Override
+    public Double measureFrequencyOffset() throws InstrumentException {
+        return delegate.measureFrequencyOffset();
+    }
+
+    @Override
+    public void reset() throws InstrumentException {
+        invalidate();
+        delegate.reset();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return delegate.isConnected();
+    }
+
+    @Override
+    public String getInstrumentId() throws InstrumentException {
+        return delegate.getInstrumentId();
+    }
+
+    @Override
+    public SignalCapture captureSignal() throws InstrumentException {
+        return delegate.captureSignal();
+    }
+
+    @Override
+    public boolean supportsBlockAcquisition() {
+        return delegate.supportsBlockAcquisition();
+    }
+
+    @Override
+    public double[] measurePowerBlock(int count, long intervalNs) throws InstrumentException {
+        return delegate.measurePowerBlock(count, intervalNs);
+    }
+
+    @Override
+    public double[] measureFrequencySweep(double startHz, double stopHz, int points) throws InstrumentException {
+        try {
+            return delegate.measureFrequencySweep(startHz, stopHz, points);
+        } catch (InstrumentException | RuntimeException e) {
+            invalidateSweptState();
+            throw e;
+        }
+    }
+
+    @Override
+    public double[] measurePowerSweep(double startDbm, double stopDbm, int points) throws InstrumentException {
+        try {
+            return delegate.measurePowerSweep(startDbm, stopDbm, points);
+        } catch (InstrumentException | RuntimeException e) {
+            invalidateSweptState();
+            throw e;
+        }
+    }
+
+    private void invalidateSweptState() {
+        // A completed sweep restores the frequency and power level; a failed one may have left either changed
+        shadow.remove(FREQUENCY_KEY);
+        shadow.remove(POWER_LEVEL_KEY);
+    }
+
+    /**
+     * Forget the remembered state so the next write of every setting goes to the instrument
+     */
+    public void invalidate() {
+        if (!shadow.isEmpty()) {
+            shadow.clear();
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Shadow-state statistics: skipped writes (hits), forwarded writes (misses) and invalidations
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        return stats;
+    }
+
+    private void write(String key, Object value, InstrumentWrite write) throws InstrumentException {
+        if (value != null && Objects.equals(shadow.get(key), value)) {
+            hits.increment();
+            log.debug("Skipped redundant write {} = {}", key, value);
+            return;
+        }
+        misses.increment();
+        try {
+            write.apply();
+        } catch (InstrumentException | RuntimeException e) {
+            // The instrument may be half-configured; make sure the next write goes through
+            shadow.remove(key);
+            throw e;
+        }
+        if (value != null) {
+            shadow.put(key, value);
+        } else {
+            shadow.remove(key);
+        }
+    }
+
+    @FunctionalInterface
+    private interface InstrumentWrite {
+        void apply() throws InstrumentException;
+    }
+}
@@ -0,0 +1,46 @@
+package com.radiotest.instruments;
+
+/**
+ * Signal captured by an analyzer for EVM and ACPR analysis.
+ * A detached capture holds the acquired record itself: the source may be reconfigured as soon as it
+ * is taken, and EVM and ACPR can be computed from it concurrently. A live capture measures on the
+ * instrument, so the source must stay on and the measurements run one at a time.
+ */
+public interface SignalCapture {
+    /**
+     * Whether the analysis no longer needs the source signal
+     */
+    boolean isDetached();
+
+    /**
+     * Error Vector Magnitude (EVM) in percentage
+     */
+    Double measureEVM() throws InstrumentException;
+
+    /**
+     * Adjacent Channel Power Ratio (ACPR) in dB
+     */
+    Double measureACPR() throws InstrumentException;
+
+    /**
+     * Capture that measures live on the instrument
+     */
+    static SignalCapture live(InstrumentInterface instrument) {
+        return new SignalCapture() {
+            @Override
+            public boolean isDetached() {
+                return false;
+            }
+
+            @Override
+            public Double measureEVM() throws InstrumentException {
+                return instrument.measureEVM();
+            }
+
+            @Override
+            public Double measureACPR() throws InstrumentException {
+                return instrument.measureACPR();
+            }
+        };
+    }
+}
@@ -1,13 +1,11 @@
 package com.radiotest.instruments;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
-@Component
 @Slf4j
 public class SignalGenerator implements InstrumentInterface {
     private boolean connected = false;
@@ -15,16 +13,25 @@ public class SignalGenerator implements InstrumentInterface {
     private Double currentPowerLevel;
     private final Map<String, String> parameters = new HashMap<>();
     private final Random random = new Random();
+    private final String instrumentId;
+
+    public SignalGenerator() {
+        this("SIGGEN-SIM-001");
+    }
+
+    public SignalGenerator(String instrumentId) {
+        this.instrumentId = instrumentId;
+    }
 
     @Override
     public void initialize() throws InstrumentException {
-        log.info("Initializing Signal Generator");
+        log.info("Initializing Signal Generator {}", instrumentId);
         connected = true;
     }
 
     @Override
     public void close() throws InstrumentException {
-        log.info("Closing Signal Generator connection");
+        log.info("Closing Signal Generator {} connection", instrumentId);
         connected = false;
     }
 
@@ -71,15 +78,20 @@ public class SignalGenerator implements InstrumentInterface {
         log.debug("Set power level to {} dBm", powerDbm);
     }
 
+    @Override
+    public Double getPowerLevel() throws InstrumentException {
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        return currentPowerLevel;
+    }
+
     @Override
     public Double measurePower() throws InstrumentException {
         if (!connected) {
             throw new InstrumentException("Instrument not connected");
         }
-        // Simulate power measurement with some noise
-        double basePower = currentPowerLevel != null ? currentPowerLevel : -10.0;
-        double noise = (random.nextDouble() - 0.5) * 0.5; // ±0.25 dBm noise
-        return basePower + noise;
+        return samplePower(currentPowerLevel != null ? currentPowerLevel : -10.0);
     }
 
     @Override
@@ -109,6 +121,57 @@ public class SignalGenerator implements InstrumentInterface {
         return (random.nextDouble() - 0.5) * 100.0; // ±50 Hz
     }
 
+    @Override
+    public boolean supportsBlockAcquisition() {
+        return true;
+    }
+
+    @Override
+    public double[] measurePowerBlock(int count, long intervalNs) throws InstrumentException {
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // Internal power meter logs the whole block on a single trigger
+        double basePower = currentPowerLevel != null ? currentPowerLevel : -10.0;
+        double[] block = new double[count];
+        for (int i = 0; i < count; i++) {
+            block[i] = samplePower(basePower);
+        }
+        log.debug("Acquired block of {} power samples", count);
+        return block;
+    }
+
+    @Override
+    public double[] measureFrequencySweep(double startHz, double stopHz, int points) throws InstrumentException {
+        InstrumentInterface.requireSweepPoints(points);
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // List-mode frequency sweep: output level is flat across the band, only noise varies
+        double basePower = currentPowerLevel != null ? currentPowerLevel : -10.0;
+        double[] trace = new double[points];
+        for (int i = 0; i < points; i++) {
+            trace[i] = samplePower(basePower);
+        }
+        log.debug("Acquired frequency sweep of {} points from {} Hz to {} Hz", points, startHz, stopHz);
+        return trace;
+    }
+
+    @Override
+    public double[] measurePowerSweep(double startDbm, double stopDbm, int points) throws InstrumentException {
+        InstrumentInterface.requireSweepPoints(points);
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // List-mode power sweep: output steps through each level in one run
+        double[] trace = new double[points];
+        for (int i = 0; i < points; i++) {
+            trace[i] = samplePower(InstrumentInterface.sweepPoint(startDbm, stopDbm, points, i));
+        }
+        log.debug("Acquired power sweep of {} points from {} dBm to {} dBm", points, startDbm, stopDbm);
+        return trace;
+    }
+
     @Override
     public void reset() throws InstrumentException {
         if (!connected) {
@@ -130,7 +193,12 @@ public class SignalGenerator implements InstrumentInterface {
         if (!connected) {
             throw new InstrumentException("Instrument not connected");
         }
-        return "SIGGEN-SIM-001";
+        return instrumentId;
     }
-}
 
+    private double samplePower(double basePower) {
+        // Simulate power measurement with some noise
+        double noise = (random.nextDouble() - 0.5) * 0.5; // ±0.25 dBm noise
+        return basePower + noise;
+    }
+}
@@ -1,13 +1,11 @@
 package com.radiotest.instruments;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
-@Component
 @Slf4j
 public class SpectrumAnalyzer implements InstrumentInterface {
     private boolean connected = false;
@@ -15,16 +13,25 @@ public class SpectrumAnalyzer implements InstrumentInterface {
     private Double currentPowerLevel;
     private final Map<String, String> parameters = new HashMap<>();
     private final Random random = new Random();
+    private final String instrumentId;
+
+    public SpectrumAnalyzer() {
+        this("SPECTRUM-ANALYZER-SIM-001");
+    }
+
+    public SpectrumAnalyzer(String instrumentId) {
+        this.instrumentId = instrumentId;
+    }
 
     @Override
     public void initialize() throws InstrumentException {
-        log.info("Initializing Spectrum Analyzer");
+        log.info("Initializing Spectrum Analyzer {}", instrumentId);
         connected = true;
     }
 
     @Override
     public void close() throws InstrumentException {
-        log.info("Closing Spectrum Analyzer connection");
+        log.info("Closing Spectrum Analyzer {} connection", instrumentId);
         connected = false;
     }
 
@@ -72,15 +79,20 @@ public class SpectrumAnalyzer implements InstrumentInterface {
         log.debug("Set reference level to {} dBm", powerDbm);
     }
 
+    @Override
+    public Double getPowerLevel() throws InstrumentException {
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        return currentPowerLevel;
+    }
+
     @Override
     public Double measurePower() throws InstrumentException {
         if (!connected) {
             throw new InstrumentException("Instrument not connected");
         }
-        // Simulate power measurement with some noise
-        double basePower = currentPowerLevel != null ? currentPowerLevel : -20.0;
-        double noise = (random.nextDouble() - 0.5) * 0.3; // ±0.15 dBm noise
-        return basePower + noise;
+        return samplePower(currentPowerLevel != null ? currentPowerLevel : -20.0);
     }
 
     @Override
@@ -101,6 +113,30 @@ public class SpectrumAnalyzer implements InstrumentInterface {
         return -47.0 + (random.nextDouble() * 4.0); // -47 to -43 dB
     }
 
+    @Override
+    public SignalCapture captureSignal() throws InstrumentException {
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // Single IQ capture; EVM and ACPR are demodulated from the stored record, not the live signal
+        return new SignalCapture() {
+            @Override
+            public boolean isDetached() {
+                return true;
+            }
+
+            @Override
+            public Double measureEVM() {
+                return 1.2 + (random.nextDouble() * 0.8); // 1.2% to 2.0%
+            }
+
+            @Override
+            public Double measureACPR() {
+                return -47.0 + (random.nextDouble() * 4.0); // -47 to -43 dB
+            }
+        };
+    }
+
     @Override
     public Double measureFrequencyOffset() throws InstrumentException {
         if (!connected) {
@@ -110,6 +146,59 @@ public class SpectrumAnalyzer implements InstrumentInterface {
         return (random.nextDouble() - 0.5) * 80.0; // ±40 Hz
     }
 
+    @Override
+    public boolean supportsBlockAcquisition() {
+        return true;
+    }
+
+    @Override
+    public double[] measurePowerBlock(int count, long intervalNs) throws InstrumentException {
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // Hardware-timed acquisition: the whole block is captured on a single trigger
+        double basePower = currentPowerLevel != null ? currentPowerLevel : -20.0;
+        double[] block = new double[count];
+        for (int i = 0; i < count; i++) {
+            block[i] = samplePower(basePower);
+        }
+        log.debug("Acquired block of {} power samples", count);
+        return block;
+    }
+
+    @Override
+    public double[] measureFrequencySweep(double startHz, double stopHz, int points) throws InstrumentException {
+        InstrumentInterface.requireSweepPoints(points);
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // Simulate a swept spectrum trace: carrier at the center frequency rolling off 2 dB/MHz to the noise floor
+        double carrierHz = currentFrequency != null ? currentFrequency : (startHz + stopHz) / 2.0;
+        double carrierPower = currentPowerLevel != null ? currentPowerLevel : -20.0;
+        double[] trace = new double[points];
+        for (int i = 0; i < points; i++) {
+            double offsetMhz = Math.abs(InstrumentInterface.sweepPoint(startHz, stopHz, points, i) - carrierHz) / 1e6;
+            trace[i] = samplePower(Math.max(carrierPower - offsetMhz * 2.0, -90.0));
+        }
+        log.debug("Acquired frequency sweep of {} points from {} Hz to {} Hz", points, startHz, stopHz);
+        return trace;
+    }
+
+    @Override
+    public double[] measurePowerSweep(double startDbm, double stopDbm, int points) throws InstrumentException {
+        InstrumentInterface.requireSweepPoints(points);
+        if (!connected) {
+            throw new InstrumentException("Instrument not connected");
+        }
+        // Step the reference level through the sweep and capture the tracked input level at each step
+        double[] trace = new double[points];
+        for (int i = 0; i < points; i++) {
+            trace[i] = samplePower(InstrumentInterface.sweepPoint(startDbm, stopDbm, points, i));
+        }
+        log.debug("Acquired power sweep of {} points from {} dBm to {} dBm", points, startDbm, stopDbm);
+        return trace;
+    }
+
     @Override
     public void reset() throws InstrumentException {
         if (!connected) {
@@ -131,7 +220,12 @@ public class SpectrumAnalyzer implements InstrumentInterface {
         if (!connected) {
             throw new InstrumentException("Instrument not connected");
         }
-        return "SPECTRUM-ANALYZER-SIM-001";
+        return instrumentId;
     }
-}
 
+    private double samplePower(double basePower) {
+        // Simulate power measurement with some noise
+        double noise = (random.nextDouble() - 0.5) * 0.3; // ±0.15 dBm noise
+        return basePower + noise;
+    }
+}
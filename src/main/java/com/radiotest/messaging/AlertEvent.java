@@ -0,0 +1,31 @@
+package com.radiotest.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kafka payload for an anomaly seen while a test was still acquiring measurements
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertEvent {
+    private Long executionId;
+    private String suiteId;
+    private String testCaseId;
+    private String technology;
+    private String metric;
+    private Integer sampleIndex;
+    private Double value;
+    private Double expected;
+    private Double score;
+    private String detector;
+    private String severity;
+    private String action; // ALERT, or ABORTED when the test was stopped early
+    private String message;
+    private LocalDateTime time;
+    private String source;
+}
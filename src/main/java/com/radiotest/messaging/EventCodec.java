@@ -0,0 +1,344 @@
+package com.radiotest.messaging;
+
+import com.radiotest.model.MeasurementTrace;
+import com.radiotest.model.MeasurementTraceCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of Kafka events, in the style of Protocol Buffers.
+ * <pre>
+ * byte    magic    ('R')
+ * byte    version  (1)
+ * byte    type     (1 = ExecutionEvent, 2 = SuiteEvent, 3 = AlertEvent)
+ * field*           varint key (tag << 3 | wire type), then the value
+ * </pre>
+ * Wire types: 0 = varint (zigzag for signed values), 1 = 8-byte double, 2 = varint length + bytes
+ * (UTF-8 strings, measurement traces packed by {@link MeasurementTraceCodec}). Null fields are omitted.
+ * Timestamps are nanoseconds since the epoch of the local date-time (zone-less, like LocalDateTime).
+ * <p>
+ * Schema evolution: new fields take new tags and older readers skip tags they do not know; removed
+ * fields leave their tag unused and newer readers see them as null. Tags are never reused with a different
+ * meaning. The version byte only changes for incompatible layouts.
+ */
+public final class EventCodec {
+    public static final byte MAGIC = 'R';
+    public static final byte VERSION = 1;
+    public static final byte TYPE_EXECUTION = 1;
+    public static final byte TYPE_SUITE = 2;
+    public static final byte TYPE_ALERT = 3;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_BYTES = 2;
+
+    private EventCodec() {
+    }
+
+    public static byte[] encode(Object event) {
+        if (event instanceof ExecutionEvent execution) {
+            return encodeExecution(execution);
+        }
+        if (event instanceof SuiteEvent suite) {
+            return encodeSuite(suite);
+        }
+        if (event instanceof AlertEvent alert) {
+            return encodeAlert(alert);
+        }
+        throw new IllegalArgumentException("No binary encoding for " + event.getClass().getName());
+    }
+
+    public static Object decode(byte[] data) {
+        Reader reader = new Reader(data);
+        if (reader.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary event (bad magic byte)");
+        }
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported event version: " + version);
+        }
+        byte type = reader.readByte();
+        return switch (type) {
+            case TYPE_EXECUTION -> decodeExecution(reader);
+            case TYPE_SUITE -> decodeSuite(reader);
+            case TYPE_ALERT -> decodeAlert(reader);
+            default -> throw new IllegalArgumentException("Unknown event type: " + type);
+        };
+    }
+
+    private static byte[] encodeExecution(ExecutionEvent event) {
+        Writer writer = new Writer(TYPE_EXECUTION, 128);
+        writer.writeLong(1, event.getExecutionId());
+        writer.writeString(2, event.getSuiteId());
+        writer.writeString(3, event.getTestCaseId());
+        writer.writeString(4, event.getTestCaseName());
+        writer.writeString(5, event.getTechnology());
+        writer.writeString(6, event.getStatus());
+        writer.writeTime(7, event.getStartTime());
+        writer.writeTime(8, event.getEndTime());
+        writer.writeLong(9, event.getDurationMs());
+        writer.writeDouble(10, event.getPowerLevel());
+        writer.writeDouble(11, event.getFrequencyHz());
+        writer.writeDouble(12, event.getEvm());
+        writer.writeDouble(13, event.getAcpr());
+        writer.writeString(14, event.getErrorMessage());
+        if (event.getMeasurements() != null) {
+            writer.writeBytes(15, MeasurementTraceCodec.encode(MeasurementTrace.toDoubleArray(event.getMeasurements())));
+        }
+        writer.writeString(16, event.getSource());
+        writer.writeLong(17, event.getPlannedSamples() != null ? event.getPlannedSamples().longValue() : null);
+        writer.writeLong(18, event.getSamplesSaved() != null ? event.getSamplesSaved().longValue() : null);
+        return writer.toByteArray();
+    }
+
+    private static ExecutionEvent decodeExecution(Reader reader) {
+        ExecutionEvent event = new ExecutionEvent();
+        while (reader.hasMore()) {
+            int key = (int) reader.readVarint();
+            switch (key >>> 3) {
+                case 1 -> event.setExecutionId(reader.readLong());
+                case 2 -> event.setSuiteId(reader.readString());
+                case 3 -> event.setTestCaseId(reader.readString());
+                case 4 -> event.setTestCaseName(reader.readString());
+                case 5 -> event.setTechnology(reader.readString());
+                case 6 -> event.setStatus(reader.readString());
+                case 7 -> event.setStartTime(reader.readTime());
+                case 8 -> event.setEndTime(reader.readTime());
+                case 9 -> event.setDurationMs(reader.readLong());
+                case 10 -> event.setPowerLevel(reader.readDouble());
+                case 11 -> event.setFrequencyHz(reader.readDouble());
+                case 12 -> event.setEvm(reader.readDouble());
+                case 13 -> event.setAcpr(reader.readDouble());
+                case 14 -> event.setErrorMessage(reader.readString());
+                case 15 -> event.setMeasurements(MeasurementTrace.wrap(MeasurementTraceCodec.decode(reader.readBytes())));
+                case 16 -> event.setSource(reader.readString());
+                case 17 -> event.setPlannedSamples(Math.toIntExact(reader.readLong()));
+                case 18 -> event.setSamplesSaved(Math.toIntExact(reader.readLong()));
+                default -> reader.skip(key & 7);
+            }
+        }
+        return event;
+    }
+
+    private static byte[] encodeSuite(SuiteEvent event) {
+        Writer writer = new Writer(TYPE_SUITE, 64);
+        writer.writeString(1, event.getSuiteId());
+        writer.writeString(2, event.getTechnology());
+        writer.writeLong(3, event.getTestCaseCount() != null ? event.getTestCaseCount().longValue() : null);
+        writer.writeString(4, event.getStatus());
+        return writer.toByteArray();
+    }
+
+    private static SuiteEvent decodeSuite(Reader reader) {
+        SuiteEvent event = new SuiteEvent();
+        while (reader.hasMore()) {
+            int key = (int) reader.readVarint();
+            switch (key >>> 3) {
+                case 1 -> event.setSuiteId(reader.readString());
+                case 2 -> event.setTechnology(reader.readString());
+                case 3 -> event.setTestCaseCount(Math.toIntExact(reader.readLong()));
+                case 4 -> event.setStatus(reader.readString());
+                default -> reader.skip(key & 7);
+            }
+        }
+        return event;
+    }
+
+    private static byte[] encodeAlert(AlertEvent event) {
+        Writer writer = new Writer(TYPE_ALERT, 128);
+        writer.writeLong(1, event.getExecutionId());
+        writer.writeString(2, event.getSuiteId());
+        writer.writeString(3, event.getTestCaseId());
+        writer.writeString(4, event.getTechnology());
+        writer.writeString(5, event.getMetric());
+        writer.writeLong(6, event.getSampleIndex() != null ? event.getSampleIndex().longValue() : null);
+        writer.writeDouble(7, event.getValue());
+        writer.writeDouble(8, event.getExpected());
+        writer.writeDouble(9, event.getScore());
+        writer.writeString(10, event.getDetector());
+        writer.writeString(11, event.getSeverity());
+        writer.writeString(12, event.getAction());
+        writer.writeString(13, event.getMessage());
+        writer.writeTime(14, event.getTime());
+        writer.writeString(15, event.getSource());
+        return writer.toByteArray();
+    }
+
+    private static AlertEvent decodeAlert(Reader reader) {
+        AlertEvent event = new AlertEvent();
+        while (reader.hasMore()) {
+            int key = (int) reader.readVarint();
+            switch (key >>> 3) {
+                case 1 -> event.setExecutionId(reader.readLong());
+                case 2 -> event.setSuiteId(reader.readString());
+                case 3 -> event.setTestCaseId(reader.readString());
+                case 4 -> event.setTechnology(reader.readString());
+                case 5 -> event.setMetric(reader.readString());
+                case 6 -> event.setSampleIndex(Math.toIntExact(reader.readLong()));
+                case 7 -> event.setValue(reader.readDouble());
+                case 8 -> event.setExpected(reader.readDouble());
+                case 9 -> event.setScore(reader.readDouble());
+                case 10 -> event.setDetector(reader.readString());
+                case 11 -> event.setSeverity(reader.readString());
+                case 12 -> event.setAction(reader.readString());
+                case 13 -> event.setMessage(reader.readString());
+                case 14 -> event.setTime(reader.readTime());
+                case 15 -> event.setSource(reader.readString());
+                default -> reader.skip(key & 7);
+            }
+        }
+        return event;
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(byte type, int initialCapacity) {
+            buffer = new byte[initialCapacity];
+            writeByte(MAGIC);
+            writeByte(VERSION);
+            writeByte(type);
+        }
+
+        void writeLong(int tag, Long value) {
+            if (value != null) {
+                writeVarint((long) tag << 3 | WIRE_VARINT);
+                writeVarint((value << 1) ^ (value >> 63)); // zigzag
+            }
+        }
+
+        void writeDouble(int tag, Double value) {
+            if (value != null) {
+                writeVarint((long) tag << 3 | WIRE_FIXED64);
+                long bits = Double.doubleToRawLongBits(value);
+                ensureCapacity(8);
+                for (int i = 0; i < 8; i++) {
+                    buffer[position++] = (byte) (bits >>> (8 * i));
+                }
+            }
+        }
+
+        void writeString(int tag, String value) {
+            if (value != null) {
+                writeBytes(tag, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        void writeTime(int tag, LocalDateTime value) {
+            if (value != null) {
+                long epochSecond = value.toEpochSecond(ZoneOffset.UTC);
+                writeLong(tag, Math.addExact(Math.multiplyExact(epochSecond, 1_000_000_000L), value.getNano()));
+            }
+        }
+
+        void writeBytes(int tag, byte[] value) {
+            writeVarint((long) tag << 3 | WIRE_BYTES);
+            writeVarint(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasMore() {
+            return position < data.length;
+        }
+
+        byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated event");
+            }
+            return data[position++];
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readLong() {
+            long zigzag = readVarint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (readByte() & 0xFFL) << (8 * i);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        byte[] readBytes() {
+            int length = Math.toIntExact(readVarint());
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("Truncated event");
+            }
+            byte[] value = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return value;
+        }
+
+        String readString() {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        LocalDateTime readTime() {
+            long nanos = readLong();
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                    (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+        }
+
+        void skip(int wireType) {
+            switch (wireType) {
+                case WIRE_VARINT -> readVarint();
+                case WIRE_FIXED64 -> readDouble();
+                case WIRE_BYTES -> readBytes();
+                default -> throw new IllegalArgumentException("Unknown wire type: " + wireType);
+            }
+        }
+    }
+}
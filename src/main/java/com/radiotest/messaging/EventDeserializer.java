@@ -0,0 +1,21 @@
+package com.radiotest.messaging;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer producing ExecutionEvent or SuiteEvent ({@link EventCodec})
+ */
+public class EventDeserializer implements Deserializer<Object> {
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return EventCodec.decode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot deserialize event from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.radiotest.messaging;
+
+import com.radiotest.framework.ExecutionCompletedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes execution and suite events to Kafka without blocking test threads.
+ * Callers only enqueue; a single sender thread hands records to the producer, which batches and
+ * compresses them (see KafkaConfig). Records that cannot be sent (queue full, broker unavailable,
+ * delivery failure) go to a bounded in-memory spill, oldest dropped first when it is full.
+ * While the spill is non-empty new events are appended to it as well, so order is kept and an
+ * unavailable broker costs one probe send per retry interval rather than one stall per event.
+ */
+@Service
+@Slf4j
+public class EventPublisher {
+    public static final String EXECUTIONS_TOPIC = "test-executions";
+    public static final String SUITES_TOPIC = "test-suites";
+    public static final String ALERTS_TOPIC = "test-alerts";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final boolean enabled;
+    private final String sourceId;
+    private final int spillCapacity;
+    private final ThreadPoolExecutor sender;
+    private final Deque<PendingEvent> spill = new ArrayDeque<>(); // guarded by itself
+    private final Map<String, TopicMetrics> metrics = new ConcurrentHashMap<>();
+    private PendingEvent probe; // spilled record being retried, guarded by spill
+
+    public EventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                          @Value("${radiotest.events.enabled:true}") boolean enabled,
+                          @Value("${radiotest.events.queue-capacity:10000}") int queueCapacity,
+                          @Value("${radiotest.events.spill-capacity:10000}") int spillCapacity,
+                          @Value("${radiotest.events.source-id:}") String sourceId) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.sourceId = sourceId.isBlank() ? localHostName() : sourceId;
+        this.spillCapacity = spillCapacity;
+        this.sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "event-publisher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> spill(((SendTask) task).event, "publish queue full"));
+    }
+
+    @EventListener
+    public void onExecutionCompleted(ExecutionCompletedEvent event) {
+        if (event.isIngested()) {
+            return; // already on Kafka, published by the bench that ran it
+        }
+        publish(EXECUTIONS_TOPIC, String.valueOf(event.getExecution().getId()),
+                ExecutionEvent.of(event.getExecution(), event.getSuiteId(), sourceId));
+    }
+
+    /**
+     * Identifies this instance in published events (radiotest.events.source-id, default the host name)
+     */
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void publishSuiteEvent(SuiteEvent event) {
+        publish(SUITES_TOPIC, event.getSuiteId(), event);
+    }
+
+    /**
+     * Queue an acquisition alert on test-alerts, keyed by execution id so one run's alerts stay in order
+     */
+    public void publishAlert(AlertEvent event) {
+        if (event.getSource() == null) {
+            event.setSource(sourceId);
+        }
+        publish(ALERTS_TOPIC, String.valueOf(event.getExecutionId()), event);
+    }
+
+    /**
+     * Queue a record for sending; never blocks
+     */
+    public void publish(String topic, String key, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        metricsFor(topic).published.increment();
+        PendingEvent event = new PendingEvent(topic, key, payload);
+        synchronized (spill) {
+            if (!spill.isEmpty()) {
+                addToSpill(event);
+                return;
+            }
+        }
+        sender.execute(new SendTask(event, null));
+    }
+
+    /**
+     * Retry spilled records: probe with the oldest one and resubmit the rest once it is acknowledged
+     */
+    @Scheduled(fixedDelayString = "${radiotest.events.spill-retry-interval-ms:30000}")
+    public void retrySpilled() {
+        PendingEvent event;
+        synchronized (spill) {
+            if (probe != null || spill.isEmpty()) {
+                return;
+            }
+            event = spill.pollFirst();
+            probe = event;
+        }
+        sender.execute(new SendTask(event, this::resubmitSpilled));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sender.shutdown();
+        if (!sender.awaitTermination(10, TimeUnit.SECONDS)) {
+            sender.shutdownNow();
+        }
+        kafkaTemplate.flush();
+        synchronized (spill) {
+            if (!spill.isEmpty()) {
+                log.warn("Discarding {} unsent events at shutdown", spill.size());
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queued", sender.getQueue().size());
+        synchronized (spill) {
+            stats.put("spilled", spill.size());
+        }
+        stats.put("spillCapacity", spillCapacity);
+        Map<String, Object> topics = new TreeMap<>();
+        metrics.forEach((topic, topicMetrics) -> topics.put(topic, topicMetrics.toMap()));
+        stats.put("topics", topics);
+        return stats;
+    }
+
+    private void send(PendingEvent event, Runnable onAcknowledged) {
+        synchronized (spill) {
+            if (event != probe && !spill.isEmpty()) {
+                addToSpill(event); // queued before the failure; don't stall on it too
+                return;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            kafkaTemplate.send(event.topic, event.key, event.payload).whenComplete((result, error) -> {
+                if (error != null) {
+                    metricsFor(event.topic).failed.increment();
+                    retryFailed(event, error.getMessage());
+                    return;
+                }
+                metricsFor(event.topic).recordAcknowledged(
+                        Math.max(0, result.getRecordMetadata().serializedValueSize()), System.nanoTime() - start);
+                if (onAcknowledged != null) {
+                    onAcknowledged.run();
+                }
+            });
+        } catch (Exception e) {
+            // e.g. metadata not available within max.block.ms
+            metricsFor(event.topic).failed.increment();
+            retryFailed(event, e.getMessage());
+        }
+    }
+
+    private void retryFailed(PendingEvent event, String reason) {
+        synchronized (spill) {
+            if (event == probe) {
+                // A failed probe goes back to the head of the spill
+                probe = null;
+                if (spill.size() >= spillCapacity) {
+                    metricsFor(event.topic).dropped.increment();
+                } else {
+                    spill.addFirst(event);
+                    metricsFor(event.topic).spilled.increment();
+                }
+                return;
+            }
+        }
+        spill(event, reason);
+    }
+
+    private void resubmitSpilled() {
+        List<PendingEvent> pending;
+        synchronized (spill) {
+            pending = new ArrayList<>(spill);
+            spill.clear();
+            probe = null;
+        }
+        if (!pending.isEmpty()) {
+            log.info("Kafka reachable again; resubmitting {} spilled events", pending.size());
+        }
+        for (PendingEvent event : pending) {
+            sender.execute(new SendTask(event, null));
+        }
+    }
+
+    private void spill(PendingEvent event, String reason) {
+        synchronized (spill) {
+            if (spill.isEmpty()) {
+                log.warn("Kafka publish to {} failed ({}); spilling events until it recovers", event.topic, reason);
+            }
+            addToSpill(event);
+        }
+    }
+
+    private void addToSpill(PendingEvent event) {
+        if (spill.size() >= spillCapacity) {
+            PendingEvent dropped = spill.pollFirst();
+            metricsFor(dropped.topic).dropped.increment();
+        }
+        spill.addLast(event);
+        metricsFor(event.topic).spilled.increment();
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "local";
+        }
+    }
+
+    private TopicMetrics metricsFor(String topic) {
+        return metrics.computeIfAbsent(topic, t -> new TopicMetrics());
+    }
+
+    private record PendingEvent(String topic, String key, Object payload) {
+    }
+
+    private class SendTask implements Runnable {
+        private final PendingEvent event;
+        private final Runnable onAcknowledged;
+
+        SendTask(PendingEvent event, Runnable onAcknowledged) {
+            this.event = event;
+            this.onAcknowledged = onAcknowledged;
+        }
+
+        @Override
+        public void run() {
+            send(event, onAcknowledged);
+        }
+    }
+
+    private static class TopicMetrics {
+        private final long createdAt = System.currentTimeMillis();
+        private final LongAdder published = new LongAdder();
+        private final LongAdder acknowledged = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder spilled = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder ackLatencyNanos = new LongAdder();
+
+        void recordAcknowledged(int size, long latencyNanos) {
+            acknowledged.increment();
+            bytes.add(size);
+            ackLatencyNanos.add(latencyNanos);
+        }
+
+        Map<String, Object> toMap() {
+            long acked = acknowledged.sum();
+            double elapsedSeconds = Math.max(1, System.currentTimeMillis() - createdAt) / 1000.0;
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("published", published.sum());
+            map.put("acknowledged", acked);
+            map.put("failed", failed.sum());
+            map.put("spilled", spilled.sum());
+            map.put("dropped", dropped.sum());
+            map.put("bytes", bytes.sum());
+            map.put("acknowledgedPerSecond", acked / elapsedSeconds);
+            map.put("bytesPerSecond", bytes.sum() / elapsedSeconds);
+            map.put("averageAckLatencyMs", acked > 0 ? ackLatencyNanos.sum() / 1e6 / acked : 0.0);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.radiotest.messaging;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for ExecutionEvent, SuiteEvent and AlertEvent ({@link EventCodec})
+ */
+public class EventSerializer implements Serializer<Object> {
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return EventCodec.encode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot serialize event for topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.radiotest.messaging;
+
+import com.radiotest.model.TestExecution;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Kafka payload for a completed execution: identifiers, scalar results and the measurement trace
+ * (packed by {@link EventCodec}). The test log stays in the database (fetch it by executionId).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionEvent {
+    private Long executionId;
+    private String suiteId;
+    private String testCaseId;
+    private String testCaseName;
+    private String technology;
+    private String status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long durationMs;
+    private Double powerLevel;
+    private Double frequencyHz;
+    private Double evm;
+    private Double acpr;
+    private String errorMessage;
+    private List<Double> measurements;
+    private String source; // publishing instance; (source, executionId) identifies the execution globally
+    private Integer plannedSamples;
+    private Integer samplesSaved;
+
+    public static ExecutionEvent of(TestExecution execution, String suiteId, String source) {
+        return new ExecutionEvent(execution.getId(), suiteId, execution.getTestCaseId(), execution.getTestCaseName(),
+                execution.getTechnology(), execution.getStatus(), execution.getStartTime(), execution.getEndTime(),
+                execution.getDurationMs(), execution.getPowerLevel(), execution.getFrequencyHz(), execution.getEvm(),
+                execution.getAcpr(), execution.getErrorMessage(), execution.getMeasurements(), source,
+                execution.getPlannedSamples(), execution.getSamplesSaved());
+    }
+}
@@ -0,0 +1,206 @@
+package com.radiotest.messaging;
+
+import com.radiotest.framework.ExecutionCompletedEvent;
+import com.radiotest.model.TestExecution;
+import com.radiotest.service.TestExecutionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingests executions published by other benches and labs on the test-executions topic.
+ * Records arrive in batches; each batch is inserted in one transaction (JDBC-batched), skipping
+ * execution keys (source:executionId) that are already stored, so redelivered records are harmless.
+ * Offsets are committed only after the batch is persisted. When a batch fails, its executions are inserted
+ * one at a time to find the failing record, which the container's error handler retries and finally
+ * dead-letters (see KafkaConfig); the records before it stay persisted. Newly inserted executions are then announced
+ * as ingested ExecutionCompletedEvents, which update the in-memory statistics exactly once.
+ * Events published by this instance itself are skipped. Disabled unless radiotest.ingest.enabled=true.
+ */
+@Service
+@Slf4j
+public class ExecutionIngestService {
+    public static final String LISTENER_ID = "execution-ingest";
+
+    private static final int MAX_STRING_LENGTH = 255;
+
+    private final TestExecutionService testExecutionService;
+    private final EventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder ingested = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder ownEvents = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    public ExecutionIngestService(TestExecutionService testExecutionService, EventPublisher eventPublisher,
+                                  ApplicationEventPublisher applicationEventPublisher,
+                                  KafkaListenerEndpointRegistry listenerRegistry, MeterRegistry meterRegistry) {
+        this.testExecutionService = testExecutionService;
+        this.eventPublisher = eventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("radiotest.ingest.consumer.lag", this, ExecutionIngestService::getConsumerLag)
+                .description("Records on test-executions not yet consumed by the ingest listener")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = EventPublisher.EXECUTIONS_TOPIC,
+            groupId = "${radiotest.ingest.group-id:radiotest-ingest}",
+            concurrency = "${radiotest.ingest.concurrency:3}",
+            autoStartup = "${radiotest.ingest.enabled:false}")
+    public void ingest(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        received.add(records.size());
+        List<TestExecution> executions = new ArrayList<>(records.size());
+        List<Integer> recordIndexes = new ArrayList<>(records.size());
+        Map<String, String> suiteIds = new HashMap<>();
+        for (int index = 0; index < records.size(); index++) {
+            ConsumerRecord<String, Object> record = records.get(index);
+            if (!(record.value() instanceof ExecutionEvent event)
+                    || event.getExecutionId() == null || event.getSource() == null) {
+                rejected.increment(); // undecodable or not an execution from an identifiable source
+                continue;
+            }
+            if (eventPublisher.getSourceId().equals(event.getSource())) {
+                ownEvents.increment(); // run and persisted here
+                continue;
+            }
+            TestExecution execution = toExecution(event);
+            executions.add(execution);
+            recordIndexes.add(index);
+            suiteIds.put(execution.getExecutionKey(), event.getSuiteId());
+        }
+
+        List<TestExecution> inserted = List.of();
+        if (!executions.isEmpty()) {
+            try {
+                inserted = testExecutionService.ingestExecutions(executions);
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                log.warn("Failed to persist {} ingested executions; retrying them one at a time: {}",
+                        executions.size(), e.getMessage());
+                inserted = ingestIndividually(executions, recordIndexes, suiteIds);
+            }
+        }
+        announce(executions.size(), inserted, suiteIds);
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Insert executions one by one; on the first that fails, announce those stored before it and name its record
+     */
+    private List<TestExecution> ingestIndividually(List<TestExecution> executions, List<Integer> recordIndexes,
+                                                   Map<String, String> suiteIds) {
+        List<TestExecution> inserted = new ArrayList<>();
+        for (int i = 0; i < executions.size(); i++) {
+            TestExecution execution = executions.get(i);
+            try {
+                inserted.addAll(testExecutionService.ingestExecutions(List.of(execution)));
+            } catch (RuntimeException e) {
+                announce(i, inserted, suiteIds);
+                throw new BatchListenerFailedException("Failed to persist ingested execution "
+                        + execution.getExecutionKey(), e, recordIndexes.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    private void announce(int candidates, List<TestExecution> inserted, Map<String, String> suiteIds) {
+        ingested.add(inserted.size());
+        duplicates.add(candidates - inserted.size());
+        for (TestExecution execution : inserted) {
+            applicationEventPublisher.publishEvent(
+                    new ExecutionCompletedEvent(execution, suiteIds.get(execution.getExecutionKey()), true));
+        }
+    }
+
+    /**
+     * Total records behind the log end across the partitions assigned to the ingest consumers
+     */
+    public double getConsumerLag() {
+        return partitionLag().values().stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    public Map<String, Object> getStatistics() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", container != null && container.isRunning());
+        stats.put("sourceId", eventPublisher.getSourceId());
+        stats.put("received", received.sum());
+        stats.put("ingested", ingested.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("ownEvents", ownEvents.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("failedBatches", failedBatches.sum());
+        Map<String, Double> lag = partitionLag();
+        stats.put("consumerLag", lag.values().stream().mapToDouble(Double::doubleValue).sum());
+        stats.put("consumerLagByPartition", lag);
+        return stats;
+    }
+
+    private Map<String, Double> partitionLag() {
+        Map<String, Double> lag = new TreeMap<>();
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return lag;
+        }
+        // Per-partition "records-lag" gauges maintained by each consumer's fetcher
+        for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+            metrics.forEach((name, metric) -> {
+                if ("records-lag".equals(name.name()) && name.tags().containsKey("partition")
+                        && metric.metricValue() instanceof Double value && !value.isNaN()) {
+                    lag.merge(name.tags().get("topic") + "-" + name.tags().get("partition"), value, Double::sum);
+                }
+            });
+        }
+        return lag;
+    }
+
+    private static TestExecution toExecution(ExecutionEvent event) {
+        TestExecution execution = new TestExecution();
+        execution.setExecutionKey(truncate(event.getSource() + ":" + event.getExecutionId()));
+        execution.setTestCaseId(truncate(event.getTestCaseId()));
+        execution.setTestCaseName(truncate(event.getTestCaseName()));
+        execution.setTechnology(truncate(event.getTechnology()));
+        execution.setStatus(truncate(event.getStatus()));
+        execution.setStartTime(event.getStartTime());
+        execution.setEndTime(event.getEndTime());
+        execution.setDurationMs(event.getDurationMs());
+        execution.setMeasurements(event.getMeasurements());
+        execution.setPowerLevel(event.getPowerLevel());
+        execution.setFrequencyHz(event.getFrequencyHz());
+        execution.setEvm(event.getEvm());
+        execution.setAcpr(event.getAcpr());
+        execution.setErrorMessage(truncate(event.getErrorMessage()));
+        execution.setPlannedSamples(event.getPlannedSamples());
+        execution.setSamplesSaved(event.getSamplesSaved());
+        return execution;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_STRING_LENGTH ? value.substring(0, MAX_STRING_LENGTH) : value;
+    }
+}
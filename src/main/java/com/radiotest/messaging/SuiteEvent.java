@@ -0,0 +1,18 @@
+package com.radiotest.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kafka payload for suite lifecycle changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuiteEvent {
+    private String suiteId;
+    private String technology;
+    private Integer testCaseCount;
+    private String status; // STARTED
+}
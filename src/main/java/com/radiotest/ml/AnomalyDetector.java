@@ -1,247 +1,601 @@
 package com.radiotest.ml;
 
+import com.radiotest.analytics.RunningStatistics;
+import com.radiotest.framework.ExecutionCompletedEvent;
 import com.radiotest.model.TestExecution;
+import com.radiotest.model.TestReport;
+import com.radiotest.repository.ExecutionMetrics;
+import com.radiotest.repository.TestExecutionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+/**
+ * The anomaly engine. Keeps a baseline per group and metric for each configured StreamingDetector
+ * (radiotest.anomaly.detectors) and scores every completed execution, local or ingested, against it
+ * as it arrives. A group is a test case, optionally split further by technology and frequency band
+ * (radiotest.anomaly.group-by), so results of unrelated tests never share a mean or variance.
+ * <p>
+ * Reports score their executions against the same baselines (read-only) instead of recomputing
+ * statistics over the report window. In-memory batches are split by group and scored in parallel on
+ * a fork-join pool. A group the engine has no warm baseline for falls back to a z-score against the
+ * group's own values; those batch baselines are cached and reused while the group's executions are
+ * unchanged. Either way the cost is linear in the number of executions.
+ * <p>
+ * A metric is anomalous when its highest detector score reaches the MEDIUM or HIGH threshold;
+ * the anomaly names the detector that fired.
+ */
 @Component
 @Slf4j
 public class AnomalyDetector {
-    
+    static final List<String> METRICS = List.of("powerLevel", "evm", "acpr", "duration");
+    static final String BATCH_DETECTOR = "batch";
+    private static final List<String> GROUPINGS = List.of("test-case", "technology", "band");
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int MIN_BATCH_SAMPLES = 3;
+    private static final int MAX_CACHED_BATCH_BASELINES = 1000;
+
+    private final TestExecutionRepository testExecutionRepository;
+    private final List<StreamingDetector> detectors;
+    private final boolean groupByTechnology;
+    private final boolean groupByBand;
+    private final double bandWidthHz;
+    private final double mediumScore;
+    private final double highScore;
+    private final int recentCapacity;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final Map<String, GroupBaseline> baselines = new ConcurrentHashMap<>();
+    private final Map<String, BatchBaseline> batchBaselines = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BatchBaseline> eldest) {
+                    return size() > MAX_CACHED_BATCH_BASELINES;
+                }
+            });
+    private final Deque<TestReport.AnomalyDetection> recent = new ArrayDeque<>(); // guarded by itself
+    private final LongAdder scoredExecutions = new LongAdder();
+    private final Map<String, LongAdder> anomaliesByDetector = new ConcurrentHashMap<>();
+    private final LongAdder batchCacheHits = new LongAdder();
+    private final LongAdder batchCacheMisses = new LongAdder();
+    private final LongAdder parallelRuns = new LongAdder();
+
+    public AnomalyDetector(TestExecutionRepository testExecutionRepository,
+                           List<StreamingDetector> availableDetectors,
+                           @Value("${radiotest.anomaly.detectors:ewma,cusum,mad}") List<String> enabledDetectors,
+                           @Value("${radiotest.anomaly.medium-score:2.0}") double mediumScore,
+                           @Value("${radiotest.anomaly.high-score:3.0}") double highScore,
+                           @Value("${radiotest.anomaly.group-by:test-case}") List<String> groupBy,
+                           @Value("${radiotest.anomaly.band-width-hz:100000000}") double bandWidthHz,
+                           @Value("${radiotest.anomaly.recent-capacity:1000}") int recentCapacity,
+                           @Value("${radiotest.anomaly.parallelism:0}") int parallelism,
+                           @Value("${radiotest.anomaly.parallel-threshold:1000}") int parallelThreshold) {
+        this.testExecutionRepository = testExecutionRepository;
+        Map<String, StreamingDetector> byName = availableDetectors.stream()
+                .collect(Collectors.toMap(StreamingDetector::getName, detector -> detector));
+        this.detectors = new ArrayList<>();
+        for (String name : enabledDetectors) {
+            StreamingDetector detector = byName.get(name.trim().toLowerCase());
+            if (detector == null) {
+                throw new IllegalArgumentException("Unknown anomaly detector '" + name + "', available: " + byName.keySet());
+            }
+            detectors.add(detector);
+        }
+        for (String grouping : groupBy) {
+            if (!GROUPINGS.contains(grouping.trim().toLowerCase())) {
+                throw new IllegalArgumentException("Unknown anomaly grouping '" + grouping + "', available: " + GROUPINGS);
+            }
+        }
+        this.groupByTechnology = groupBy.stream().anyMatch(grouping -> "technology".equalsIgnoreCase(grouping.trim()));
+        this.groupByBand = groupBy.stream().anyMatch(grouping -> "band".equalsIgnoreCase(grouping.trim()));
+        this.bandWidthHz = bandWidthHz;
+        this.mediumScore = mediumScore;
+        this.highScore = highScore;
+        this.recentCapacity = recentCapacity;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    thread.setName("anomaly-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long executions = 0;
+        Pageable pageSize = PageRequest.of(0, REBUILD_PAGE_SIZE);
+        long lastId = Long.MIN_VALUE;
+        List<ExecutionMetrics> page;
+        do {
+            page = testExecutionRepository.findMetricsAfter(lastId, pageSize);
+            for (ExecutionMetrics metrics : page) {
+                if (metrics.getTestCaseId() == null || "RUNNING".equals(metrics.getStatus())) {
+                    continue;
+                }
+                baselineFor(metrics.getTestCaseId(), metrics.getTechnology(), metrics.getFrequencyHz())
+                        .update(metricValues(metrics));
+                executions++;
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Rebuilt anomaly baselines ({}) for {} groups from {} executions in {} ms",
+                getDetectorNames(), baselines.size(), executions, System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onExecutionCompleted(ExecutionCompletedEvent event) {
+        TestExecution execution = event.getExecution();
+        if (execution.getTestCaseId() == null) {
+            return;
+        }
+        Double[] values = metricValues(execution);
+        Scores scores = baselineFor(execution.getTestCaseId(), execution.getTechnology(), execution.getFrequencyHz())
+                .update(values);
+        scoredExecutions.increment();
+        List<TestReport.AnomalyDetection> anomalies = new ArrayList<>();
+        collectAnomalies(execution.getId(), execution.getTestCaseId(), values, scores, null, anomalies);
+        if (anomalies.isEmpty()) {
+            return;
+        }
+        synchronized (recent) {
+            for (TestReport.AnomalyDetection anomaly : anomalies) {
+                anomaliesByDetector.computeIfAbsent(anomaly.getDetector(), name -> new LongAdder()).increment();
+                recent.addFirst(anomaly);
+                if (recent.size() > recentCapacity) {
+                    recent.removeLast();
+                }
+            }
+        }
+        log.info("Execution {} of {}: {} anomalous metric(s) {}", execution.getId(), execution.getTestCaseId(),
+                anomalies.size(), anomalies.stream().map(TestReport.AnomalyDetection::getMetric).toList());
+    }
+
     /**
-     * Detect anomalies using statistical methods (Z-score, IQR)
+     * Score executions against the current baselines without updating them. Executions are grouped,
+     * and large batches are scored in parallel across groups.
      */
-    public List<Anomaly> detectAnomalies(List<TestExecution> executions) {
-        List<Anomaly> anomalies = new ArrayList<>();
-        
-        if (executions.size() < 3) {
-            return anomalies; // Need at least 3 data points for meaningful anomaly detection
-        }
-
-        // Detect anomalies in power levels
-        anomalies.addAll(detectPowerAnomalies(executions));
-        
-        // Detect anomalies in EVM
-        anomalies.addAll(detectEVMAnomalies(executions));
-        
-        // Detect anomalies in ACPR
-        anomalies.addAll(detectACPRAnomalies(executions));
-        
-        // Detect anomalies in duration
-        anomalies.addAll(detectDurationAnomalies(executions));
-
-        return anomalies;
-    }
-
-    private List<Anomaly> detectPowerAnomalies(List<TestExecution> executions) {
-        List<Anomaly> anomalies = new ArrayList<>();
-        List<Double> powerLevels = executions.stream()
-                .filter(e -> e.getPowerLevel() != null)
-                .map(TestExecution::getPowerLevel)
-                .collect(Collectors.toList());
-        
-        if (powerLevels.size() < 3) {
+    public List<TestReport.AnomalyDetection> detectAnomalies(List<TestExecution> executions) {
+        Map<String, List<Sample>> samplesByGroup = new LinkedHashMap<>();
+        for (TestExecution execution : executions) {
+            if (execution.getTestCaseId() != null) {
+                samplesByGroup.computeIfAbsent(
+                        groupKey(execution.getTestCaseId(), execution.getTechnology(), execution.getFrequencyHz()),
+                        key -> new ArrayList<>())
+                        .add(new Sample(execution.getId(), execution.getTestCaseId(), metricValues(execution)));
+            }
+        }
+        List<Group> groups = new ArrayList<>(samplesByGroup.size());
+        samplesByGroup.forEach((key, samples) -> groups.add(new Group(key, samples)));
+
+        if (executions.size() < parallelThreshold || groups.size() < 2) {
+            List<TestReport.AnomalyDetection> anomalies = new ArrayList<>();
+            for (Group group : groups) {
+                scoreGroup(group, anomalies);
+            }
             return anomalies;
         }
+        parallelRuns.increment();
+        return pool.invoke(new GroupTask(groups, 0, groups.size()));
+    }
 
-        double mean = calculateMean(powerLevels);
-        double stdDev = calculateStdDev(powerLevels);
-        
-        for (TestExecution execution : executions) {
-            if (execution.getPowerLevel() != null) {
-                double zScore = Math.abs((execution.getPowerLevel() - mean) / stdDev);
-                if (zScore > 3.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "powerLevel",
-                            execution.getPowerLevel(),
-                            mean,
-                            zScore,
-                            "HIGH"
-                    ));
-                } else if (zScore > 2.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "powerLevel",
-                            execution.getPowerLevel(),
-                            mean,
-                            zScore,
-                            "MEDIUM"
-                    ));
-                }
+    /**
+     * Incremental scoring of rows read one at a time (e.g. from a database cursor) against the current
+     * baselines. Rows of groups without a warm baseline are not scored, since there is no batch to fall back to.
+     */
+    public Scan newScan() {
+        return new Scan();
+    }
+
+    /**
+     * Per test case, the values outside which an execution can score MEDIUM or above in a {@link Scan}:
+     * the intersection of the detector ranges of all its groups. Rows outside these bounds are a superset
+     * of the anomalies a Scan reports, so they can be preselected in the database. Test cases without a
+     * warm baseline are absent; a metric without one has infinite bounds.
+     */
+    public Map<String, AlertBounds> getAlertBounds() {
+        Map<String, AlertBounds> bounds = new HashMap<>();
+        baselines.values().forEach(baseline -> baseline.narrow(
+                bounds.computeIfAbsent(baseline.testCaseId, id -> AlertBounds.unbounded())));
+        bounds.values().removeIf(AlertBounds::isUnbounded);
+        return bounds;
+    }
+
+    /**
+     * Anomalies found as executions completed, newest first (optionally for one test case)
+     */
+    public List<TestReport.AnomalyDetection> getRecentAnomalies(String testCaseId, int limit) {
+        synchronized (recent) {
+            return recent.stream()
+                    .filter(anomaly -> testCaseId == null || testCaseId.equals(anomaly.getTestCaseId()))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Expected value and sample count of every detector baseline of a test case, per group; null if it has none
+     */
+    public Map<String, Object> getBaseline(String testCaseId) {
+        Map<String, Object> groups = new TreeMap<>();
+        baselines.forEach((key, baseline) -> {
+            if (baseline.testCaseId.equals(testCaseId)) {
+                groups.put(key, baseline.toMap());
             }
+        });
+        return groups.isEmpty() ? null : groups;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("detectors", getDetectorNames());
+        stats.put("mediumScore", mediumScore);
+        stats.put("highScore", highScore);
+        stats.put("groupBy", getGroupBy());
+        stats.put("groups", baselines.size());
+        stats.put("scoredExecutions", scoredExecutions.sum());
+        Map<String, Long> byDetector = new TreeMap<>();
+        anomaliesByDetector.forEach((name, count) -> byDetector.put(name, count.sum()));
+        stats.put("anomaliesByDetector", byDetector);
+        stats.put("parallelism", pool.getParallelism());
+        stats.put("parallelRuns", parallelRuns.sum());
+        stats.put("cachedBatchBaselines", batchBaselines.size());
+        stats.put("batchCacheHits", batchCacheHits.sum());
+        stats.put("batchCacheMisses", batchCacheMisses.sum());
+        return stats;
+    }
+
+    public List<String> getDetectorNames() {
+        return detectors.stream().map(StreamingDetector::getName).collect(Collectors.toList());
+    }
+
+    private List<String> getGroupBy() {
+        List<String> groupBy = new ArrayList<>(List.of("test-case"));
+        if (groupByTechnology) {
+            groupBy.add("technology");
+        }
+        if (groupByBand) {
+            groupBy.add("band");
         }
-        
-        return anomalies;
+        return groupBy;
     }
 
-    private List<Anomaly> detectEVMAnomalies(List<TestExecution> executions) {
-        List<Anomaly> anomalies = new ArrayList<>();
-        List<Double> evmValues = executions.stream()
-                .filter(e -> e.getEvm() != null)
-                .map(TestExecution::getEvm)
-                .collect(Collectors.toList());
-        
-        if (evmValues.size() < 3) {
-            return anomalies;
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Score one group's executions; metrics without a warm engine baseline fall back to the group's batch baseline
+     */
+    private void scoreGroup(Group group, List<TestReport.AnomalyDetection> anomalies) {
+        GroupBaseline baseline = baselines.get(group.key());
+        BatchBaseline batch = null;
+        for (Sample sample : group.samples()) {
+            Scores scores = baseline != null ? baseline.score(sample.values()) : null;
+            if (batch == null && needsFallback(sample.values(), scores)) {
+                batch = batchBaselineFor(group);
+            }
+            collectAnomalies(sample.executionId(), sample.testCaseId(), sample.values(), scores, batch, anomalies);
         }
+    }
 
-        double mean = calculateMean(evmValues);
-        double stdDev = calculateStdDev(evmValues);
-        
-        for (TestExecution execution : executions) {
-            if (execution.getEvm() != null) {
-                double zScore = Math.abs((execution.getEvm() - mean) / stdDev);
-                if (zScore > 3.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "evm",
-                            execution.getEvm(),
-                            mean,
-                            zScore,
-                            "HIGH"
-                    ));
-                } else if (zScore > 2.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "evm",
-                            execution.getEvm(),
-                            mean,
-                            zScore,
-                            "MEDIUM"
-                    ));
+    private static boolean needsFallback(Double[] values, Scores scores) {
+        for (int metric = 0; metric < values.length; metric++) {
+            if (values[metric] != null && (scores == null || strongestDetector(scores, metric) < 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mean and spread of each metric over the group's own executions, cached while the group is unchanged
+     */
+    private BatchBaseline batchBaselineFor(Group group) {
+        long idSum = 0;
+        long maxId = Long.MIN_VALUE;
+        for (Sample sample : group.samples()) {
+            long id = sample.executionId() != null ? sample.executionId() : 0;
+            idSum += id;
+            maxId = Math.max(maxId, id);
+        }
+        Fingerprint fingerprint = new Fingerprint(group.samples().size(), maxId, idSum);
+        BatchBaseline cached = batchBaselines.get(group.key());
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            batchCacheHits.increment();
+            return cached;
+        }
+        batchCacheMisses.increment();
+        RunningStatistics[] metrics = new RunningStatistics[METRICS.size()];
+        for (int metric = 0; metric < metrics.length; metric++) {
+            metrics[metric] = new RunningStatistics();
+        }
+        for (Sample sample : group.samples()) {
+            for (int metric = 0; metric < metrics.length; metric++) {
+                if (sample.values()[metric] != null) {
+                    metrics[metric].add(sample.values()[metric]);
                 }
             }
         }
-        
-        return anomalies;
+        BatchBaseline batch = new BatchBaseline(fingerprint, metrics);
+        batchBaselines.put(group.key(), batch);
+        return batch;
     }
 
-    private List<Anomaly> detectACPRAnomalies(List<TestExecution> executions) {
-        List<Anomaly> anomalies = new ArrayList<>();
-        List<Double> acprValues = executions.stream()
-                .filter(e -> e.getAcpr() != null)
-                .map(TestExecution::getAcpr)
-                .collect(Collectors.toList());
-        
-        if (acprValues.size() < 3) {
-            return anomalies;
+    private static int strongestDetector(Scores scores, int metric) {
+        int strongest = -1;
+        for (int detector = 0; detector < scores.score()[metric].length; detector++) {
+            double score = scores.score()[metric][detector];
+            if (!Double.isNaN(score) && (strongest < 0 || score > scores.score()[metric][strongest])) {
+                strongest = detector;
+            }
         }
+        return strongest;
+    }
 
-        double mean = calculateMean(acprValues);
-        double stdDev = calculateStdDev(acprValues);
-        
-        for (TestExecution execution : executions) {
-            if (execution.getAcpr() != null) {
-                double zScore = Math.abs((execution.getAcpr() - mean) / stdDev);
-                if (zScore > 3.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "acpr",
-                            execution.getAcpr(),
-                            mean,
-                            zScore,
-                            "HIGH"
-                    ));
-                } else if (zScore > 2.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "acpr",
-                            execution.getAcpr(),
-                            mean,
-                            zScore,
-                            "MEDIUM"
-                    ));
-                }
+    private void collectAnomalies(Long executionId, String testCaseId, Double[] values, Scores scores,
+                                  BatchBaseline batch, List<TestReport.AnomalyDetection> anomalies) {
+        for (int metric = 0; metric < METRICS.size(); metric++) {
+            if (values[metric] == null) {
+                continue;
+            }
+            int strongest = scores != null ? strongestDetector(scores, metric) : -1;
+            double score;
+            double expected;
+            String detector;
+            if (strongest >= 0) {
+                score = scores.score()[metric][strongest];
+                expected = scores.expected()[metric][strongest];
+                detector = detectors.get(strongest).getName();
+            } else if (batch != null && batch.metrics()[metric].getCount() >= MIN_BATCH_SAMPLES) {
+                RunningStatistics statistics = batch.metrics()[metric];
+                expected = statistics.getMean();
+                score = StreamingDetector.standardize(values[metric] - expected, statistics.getStdDev(), expected);
+                detector = BATCH_DETECTOR;
+            } else {
+                continue;
+            }
+            if (score < mediumScore) {
+                continue;
             }
+            TestReport.AnomalyDetection anomaly = new TestReport.AnomalyDetection();
+            anomaly.setExecutionId(executionId);
+            anomaly.setTestCaseId(testCaseId);
+            anomaly.setMetric(METRICS.get(metric));
+            anomaly.setValue(values[metric]);
+            anomaly.setExpected(expected);
+            anomaly.setDeviation(Math.abs(values[metric] - expected));
+            anomaly.setScore(score);
+            anomaly.setDetector(detector);
+            anomaly.setSeverity(score >= highScore ? "HIGH" : "MEDIUM");
+            anomalies.add(anomaly);
         }
-        
-        return anomalies;
     }
 
-    private List<Anomaly> detectDurationAnomalies(List<TestExecution> executions) {
-        List<Anomaly> anomalies = new ArrayList<>();
-        List<Long> durations = executions.stream()
-                .filter(e -> e.getDurationMs() != null)
-                .map(TestExecution::getDurationMs)
-                .collect(Collectors.toList());
-        
-        if (durations.size() < 3) {
-            return anomalies;
+    private static Double[] metricValues(TestExecution execution) {
+        return metricValues(execution.getPowerLevel(), execution.getEvm(), execution.getAcpr(), execution.getDurationMs());
+    }
+
+    private static Double[] metricValues(ExecutionMetrics metrics) {
+        return metricValues(metrics.getPowerLevel(), metrics.getEvm(), metrics.getAcpr(), metrics.getDurationMs());
+    }
+
+    private static Double[] metricValues(Double powerLevel, Double evm, Double acpr, Long durationMs) {
+        return new Double[]{powerLevel, evm, acpr, durationMs != null ? durationMs.doubleValue() : null};
+    }
+
+    /**
+     * Baseline group of an execution: its test case, plus technology and frequency band if configured
+     */
+    private String groupKey(String testCaseId, String technology, Double frequencyHz) {
+        StringBuilder key = new StringBuilder(testCaseId);
+        if (groupByTechnology) {
+            key.append('|').append(technology);
+        }
+        if (groupByBand) {
+            key.append("|band-").append(frequencyHz != null ? (long) Math.floor(frequencyHz / bandWidthHz) : "none");
         }
+        return key.toString();
+    }
 
-        List<Double> durationsDouble = durations.stream().map(Long::doubleValue).collect(Collectors.toList());
-        double mean = calculateMean(durationsDouble);
-        double stdDev = calculateStdDev(durationsDouble);
-        
-        for (TestExecution execution : executions) {
-            if (execution.getDurationMs() != null) {
-                double zScore = Math.abs((execution.getDurationMs() - mean) / stdDev);
-                if (zScore > 3.0) {
-                    anomalies.add(new Anomaly(
-                            execution.getTestCaseId(),
-                            "duration",
-                            execution.getDurationMs().doubleValue(),
-                            mean,
-                            zScore,
-                            "HIGH"
-                    ));
-                }
+    private GroupBaseline baselineFor(String testCaseId, String technology, Double frequencyHz) {
+        return baselines.computeIfAbsent(groupKey(testCaseId, technology, frequencyHz),
+                key -> new GroupBaseline(testCaseId));
+    }
+
+    private record Sample(Long executionId, String testCaseId, Double[] values) {
+    }
+
+    private record Group(String key, List<Sample> samples) {
+    }
+
+    /**
+     * Identifies the set of executions a batch baseline was computed from
+     */
+    private record Fingerprint(int count, long maxExecutionId, long executionIdSum) {
+    }
+
+    /**
+     * Per-metric statistics of one group's executions; read-only once built
+     */
+    private record BatchBaseline(Fingerprint fingerprint, RunningStatistics[] metrics) {
+    }
+
+    /**
+     * Scores a range of groups, splitting it in halves until each task holds one group
+     */
+    private class GroupTask extends RecursiveTask<List<TestReport.AnomalyDetection>> {
+        private static final long serialVersionUID = 1L; // ForkJoinTask is Serializable; never serialized here
+
+        private final List<Group> groups;
+        private final int from;
+        private final int to;
+
+        GroupTask(List<Group> groups, int from, int to) {
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<TestReport.AnomalyDetection> compute() {
+            if (to - from == 1) {
+                List<TestReport.AnomalyDetection> anomalies = new ArrayList<>();
+                scoreGroup(groups.get(from), anomalies);
+                return anomalies;
             }
+            int middle = (from + to) >>> 1;
+            GroupTask left = new GroupTask(groups, from, middle);
+            left.fork();
+            List<TestReport.AnomalyDetection> right = new GroupTask(groups, middle, to).compute();
+            List<TestReport.AnomalyDetection> anomalies = left.join();
+            anomalies.addAll(right);
+            return anomalies;
         }
-        
-        return anomalies;
     }
 
-    private double calculateMean(List<Double> values) {
-        return values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+    public class Scan {
+        private final List<TestReport.AnomalyDetection> anomalies = new ArrayList<>();
+
+        private Scan() {
+        }
+
+        public void accept(ExecutionMetrics row) {
+            if (row.getTestCaseId() == null) {
+                return;
+            }
+            GroupBaseline baseline = baselines.get(groupKey(row.getTestCaseId(), row.getTechnology(), row.getFrequencyHz()));
+            if (baseline != null) {
+                Double[] values = metricValues(row);
+                collectAnomalies(row.getId(), row.getTestCaseId(), values, baseline.score(values), null, anomalies);
+            }
+        }
+
+        public List<TestReport.AnomalyDetection> getAnomalies() {
+            return anomalies;
+        }
     }
 
-    private double calculateStdDev(List<Double> values) {
-        if (values.size() < 2) {
-            return 0.0;
+    /**
+     * Per metric (in {@link #METRICS} order), the exclusive range a value must stay within to go unflagged
+     */
+    public record AlertBounds(double[] low, double[] high) {
+        static AlertBounds unbounded() {
+            double[] low = new double[METRICS.size()];
+            double[] high = new double[METRICS.size()];
+            Arrays.fill(low, Double.NEGATIVE_INFINITY);
+            Arrays.fill(high, Double.POSITIVE_INFINITY);
+            return new AlertBounds(low, high);
+        }
+
+        boolean isUnbounded() {
+            for (int metric = 0; metric < low.length; metric++) {
+                if (low[metric] != Double.NEGATIVE_INFINITY || high[metric] != Double.POSITIVE_INFINITY) {
+                    return false;
+                }
+            }
+            return true;
         }
-        double mean = calculateMean(values);
-        double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .average()
-                .orElse(0.0);
-        return Math.sqrt(variance);
     }
 
-    public static class Anomaly {
-        private String testCaseId;
-        private String metric;
-        private Double value;
-        private Double expected;
-        private Double zScore;
-        private String severity;
+    /**
+     * Scores as [metric][detector], NaN where the metric is missing or the baseline is still warming up,
+     * with what each baseline expected before the value was folded in
+     */
+    private record Scores(double[][] score, double[][] expected) {
+    }
 
-        public Anomaly(String testCaseId, String metric, Double value, Double expected, Double zScore, String severity) {
+    /**
+     * One detector baseline per metric for a group
+     */
+    private class GroupBaseline {
+        private final String testCaseId;
+        private final StreamingDetector.Baseline[][] series = new StreamingDetector.Baseline[METRICS.size()][];
+
+        GroupBaseline(String testCaseId) {
             this.testCaseId = testCaseId;
-            this.metric = metric;
-            this.value = value;
-            this.expected = expected;
-            this.zScore = zScore;
-            this.severity = severity;
-        }
-
-        // Getters and setters
-        public String getTestCaseId() { return testCaseId; }
-        public void setTestCaseId(String testCaseId) { this.testCaseId = testCaseId; }
-        public String getMetric() { return metric; }
-        public void setMetric(String metric) { this.metric = metric; }
-        public Double getValue() { return value; }
-        public void setValue(Double value) { this.value = value; }
-        public Double getExpected() { return expected; }
-        public void setExpected(Double expected) { this.expected = expected; }
-        public Double getZScore() { return zScore; }
-        public void setZScore(Double zScore) { this.zScore = zScore; }
-        public String getSeverity() { return severity; }
-        public void setSeverity(String severity) { this.severity = severity; }
+            for (int metric = 0; metric < series.length; metric++) {
+                series[metric] = new StreamingDetector.Baseline[detectors.size()];
+                for (int detector = 0; detector < detectors.size(); detector++) {
+                    series[metric][detector] = detectors.get(detector).newBaseline();
+                }
+            }
+        }
+
+        synchronized Scores update(Double[] values) {
+            return apply(values, true);
+        }
+
+        synchronized Scores score(Double[] values) {
+            return apply(values, false);
+        }
+
+        private Scores apply(Double[] values, boolean update) {
+            double[][] scores = new double[series.length][detectors.size()];
+            double[][] expected = new double[series.length][detectors.size()];
+            for (int metric = 0; metric < series.length; metric++) {
+                for (int detector = 0; detector < detectors.size(); detector++) {
+                    StreamingDetector.Baseline baseline = series[metric][detector];
+                    expected[metric][detector] = baseline.getExpected();
+                    if (values[metric] == null) {
+                        scores[metric][detector] = Double.NaN;
+                    } else {
+                        scores[metric][detector] = update ? baseline.update(values[metric]) : baseline.score(values[metric]);
+                    }
+                }
+            }
+            return new Scores(scores, expected);
+        }
+
+        /**
+         * Shrink the bounds to the ranges of every warm detector, pulled in slightly so that values rounding
+         * onto the MEDIUM threshold are still selected
+         */
+        synchronized void narrow(AlertBounds bounds) {
+            for (int metric = 0; metric < series.length; metric++) {
+                for (StreamingDetector.Baseline baseline : series[metric]) {
+                    double[] range = baseline.getRange(mediumScore);
+                    if (range == null) {
+                        continue;
+                    }
+                    double margin = (range[1] - range[0]) * 1e-9;
+                    bounds.low()[metric] = Math.max(bounds.low()[metric], range[0] + margin);
+                    bounds.high()[metric] = Math.min(bounds.high()[metric], range[1] - margin);
+                }
+            }
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int metric = 0; metric < series.length; metric++) {
+                Map<String, Object> byDetector = new LinkedHashMap<>();
+                for (int detector = 0; detector < detectors.size(); detector++) {
+                    StreamingDetector.Baseline baseline = series[metric][detector];
+                    Map<String, Object> state = new LinkedHashMap<>();
+                    state.put("expected", baseline.getCount() > 0 ? baseline.getExpected() : null);
+                    state.put("count", baseline.getCount());
+                    byDetector.put(detectors.get(detector).getName(), state);
+                }
+                map.put(METRICS.get(metric), byDetector);
+            }
+            return map;
+        }
     }
 }
-
@@ -0,0 +1,90 @@
+package com.radiotest.ml;
+
+import com.radiotest.analytics.RunningStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Two-sided tabular CUSUM: accumulates standardized deviations beyond a slack of k sigma, so a
+ * small but persistent shift (e.g. a drifting amplifier) is caught even when no single value is
+ * extreme. Only a sum that crosses the decision interval h is an alarm; it is reported with the sum
+ * scaled so that h maps to a score of 3 (HIGH), and then reset. Below h the score is 0.
+ * The sums belong to the most recent values, so CUSUM only scores on update: a read-only score of
+ * an arbitrary (e.g. historical) value is NaN.
+ */
+@Component
+public class CusumDetector implements StreamingDetector {
+    private static final double DECISION_SCORE = 3.0;
+
+    private final double slack;
+    private final double decisionInterval;
+    private final int warmup;
+
+    public CusumDetector(@Value("${radiotest.anomaly.cusum.k:0.5}") double slack,
+                         @Value("${radiotest.anomaly.cusum.h:5}") double decisionInterval,
+                         @Value("${radiotest.anomaly.warmup:10}") int warmup) {
+        if (decisionInterval <= 0) {
+            throw new IllegalArgumentException("radiotest.anomaly.cusum.h must be positive");
+        }
+        this.slack = slack;
+        this.decisionInterval = decisionInterval;
+        this.warmup = warmup;
+    }
+
+    @Override
+    public String getName() {
+        return "cusum";
+    }
+
+    @Override
+    public Baseline newBaseline() {
+        return new CusumBaseline();
+    }
+
+    private class CusumBaseline implements Baseline {
+        private final RunningStatistics reference = new RunningStatistics();
+        private double upper;
+        private double lower;
+
+        @Override
+        public double update(double value) {
+            double score = Double.NaN;
+            if (reference.getCount() >= warmup) {
+                double z = standardized(value);
+                upper = Math.max(0, upper + z - slack);
+                lower = Math.max(0, lower - z - slack);
+                score = alarmScore(Math.max(upper, lower));
+                if (score > 0) {
+                    upper = 0;
+                    lower = 0;
+                }
+            }
+            reference.add(value);
+            return score;
+        }
+
+        @Override
+        public double score(double value) {
+            return Double.NaN;
+        }
+
+        private double alarmScore(double sum) {
+            return sum > decisionInterval ? sum * DECISION_SCORE / decisionInterval : 0;
+        }
+
+        private double standardized(double value) {
+            double deviation = value - reference.getMean();
+            return Math.signum(deviation) * StreamingDetector.standardize(deviation, reference.getStdDev(), reference.getMean());
+        }
+
+        @Override
+        public double getExpected() {
+            return reference.getMean();
+        }
+
+        @Override
+        public long getCount() {
+            return reference.getCount();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.radiotest.ml;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exponentially weighted moving mean and variance: tracks slow drift of a test case's results while
+ * flagging sudden jumps. Until 1/alpha values have been seen the weights fall back to a plain running
+ * mean, so the first executions are not over-weighted.
+ */
+@Component
+public class EwmaDetector implements StreamingDetector {
+    private final double alpha;
+    private final int warmup;
+
+    public EwmaDetector(@Value("${radiotest.anomaly.ewma.alpha:0.1}") double alpha,
+                        @Value("${radiotest.anomaly.warmup:10}") int warmup) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("radiotest.anomaly.ewma.alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+        this.warmup = warmup;
+    }
+
+    @Override
+    public String getName() {
+        return "ewma";
+    }
+
+    @Override
+    public Baseline newBaseline() {
+        return new EwmaBaseline();
+    }
+
+    private class EwmaBaseline implements Baseline {
+        private long count;
+        private double mean;
+        private double variance;
+
+        @Override
+        public double update(double value) {
+            double score = score(value);
+            count++;
+            double weight = Math.max(alpha, 1.0 / count);
+            double delta = value - mean;
+            double increment = weight * delta;
+            mean += increment;
+            variance = (1 - weight) * (variance + delta * increment);
+            return score;
+        }
+
+        @Override
+        public double score(double value) {
+            if (count < warmup) {
+                return Double.NaN;
+            }
+            return StreamingDetector.standardize(value - mean, Math.sqrt(variance), mean);
+        }
+
+        @Override
+        public double[] getRange(double score) {
+            return count < warmup ? null : StreamingDetector.range(score, Math.sqrt(variance), mean);
+        }
+
+        @Override
+        public double getExpected() {
+            return mean;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+    }
+}
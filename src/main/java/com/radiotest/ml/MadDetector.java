@@ -0,0 +1,113 @@
+package com.radiotest.ml;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Robust z-score against the median and median absolute deviation of the last N values
+ * (falling back to the interquartile range when more than half the window is identical).
+ * Unlike mean/stddev baselines, a few earlier outliers do not widen the normal range.
+ * The window is fixed, so scoring costs O(N log N) for a small constant N.
+ */
+@Component
+public class MadDetector implements StreamingDetector {
+    private static final double MAD_TO_SIGMA = 1.4826;
+    private static final double IQR_TO_SIGMA = 1.349;
+
+    private final int window;
+    private final int warmup;
+
+    public MadDetector(@Value("${radiotest.anomaly.mad.window:50}") int window,
+                       @Value("${radiotest.anomaly.warmup:10}") int warmup) {
+        if (window < 3) {
+            throw new IllegalArgumentException("radiotest.anomaly.mad.window must be at least 3");
+        }
+        this.window = window;
+        this.warmup = Math.min(warmup, window);
+    }
+
+    @Override
+    public String getName() {
+        return "mad";
+    }
+
+    @Override
+    public Baseline newBaseline() {
+        return new MadBaseline();
+    }
+
+    private class MadBaseline implements Baseline {
+        private final double[] values = new double[window];
+        private long count;
+        private double median = Double.NaN;
+        private double scale;
+        private boolean stale = true;
+
+        @Override
+        public double update(double value) {
+            double score = score(value);
+            values[(int) (count % window)] = value;
+            count++;
+            stale = true;
+            return score;
+        }
+
+        @Override
+        public double score(double value) {
+            if (count < warmup) {
+                return Double.NaN;
+            }
+            refresh();
+            return StreamingDetector.standardize(value - median, scale, median);
+        }
+
+        @Override
+        public double[] getRange(double score) {
+            if (count < warmup) {
+                return null;
+            }
+            refresh();
+            return StreamingDetector.range(score, scale, median);
+        }
+
+        @Override
+        public double getExpected() {
+            refresh();
+            return median;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        private void refresh() {
+            if (!stale || count == 0) {
+                return;
+            }
+            int size = (int) Math.min(count, window);
+            double[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            median = quantile(sorted, 0.5);
+            double[] deviations = new double[size];
+            for (int i = 0; i < size; i++) {
+                deviations[i] = Math.abs(sorted[i] - median);
+            }
+            Arrays.sort(deviations);
+            scale = MAD_TO_SIGMA * quantile(deviations, 0.5);
+            if (scale == 0) {
+                scale = (quantile(sorted, 0.75) - quantile(sorted, 0.25)) / IQR_TO_SIGMA;
+            }
+            stale = false;
+        }
+    }
+
+    private static double quantile(double[] sorted, double q) {
+        double position = q * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (position - lower) * (sorted[upper] - sorted[lower]);
+    }
+}
@@ -1,45 +1,85 @@
 package com.radiotest.ml;
 
-import com.radiotest.model.TestExecution;
+import com.radiotest.analytics.MetricSketches;
+import com.radiotest.repository.ExecutionOutcome;
 import com.radiotest.repository.TestExecutionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PredictionService {
+    /** Upper bound on the executions read for a windowed prediction */
+    public static final int MAX_WINDOW_SIZE = 1000;
+
+    private final TestCaseStatisticsStore statisticsStore;
     private final TestExecutionRepository testExecutionRepository;
 
     /**
      * Predict the likelihood of test failure based on historical data
      */
     public PredictionResult predictTestOutcome(String testCaseId) {
-        List<TestExecution> historicalExecutions = testExecutionRepository
-                .findRecentExecutionsByTestCaseId(testCaseId);
+        Optional<TestCaseStatistics> stats = statisticsStore.get(testCaseId);
         
-        if (historicalExecutions.isEmpty()) {
+        if (stats.isEmpty() || stats.get().getTotalExecutions() == 0) {
             return new PredictionResult(0.5, "INSUFFICIENT_DATA", 
                     "No historical data available for prediction");
         }
 
-        // Simple prediction based on recent pass rate
-        long totalExecutions = historicalExecutions.size();
-        long passedExecutions = historicalExecutions.stream()
-                .filter(e -> "PASSED".equals(e.getStatus()))
-                .count();
-        
-        double passRate = (double) passedExecutions / totalExecutions;
+        // Simple prediction based on pass rate
+        long totalExecutions = stats.get().getTotalExecutions();
+        long passedExecutions = stats.get().getPassedExecutions();
+        return predictFromPassRate((double) passedExecutions / totalExecutions, totalExecutions);
+    }
+
+    /**
+     * Predict from the time-decayed pass rate (recent executions weigh more); constant time
+     */
+    public PredictionResult predictDecayedTestOutcome(String testCaseId) {
+        Optional<TestCaseStatistics> stats = statisticsStore.get(testCaseId);
+        Double passRate = stats.map(TestCaseStatistics::getDecayedPassRate).orElse(null);
+        if (passRate == null) {
+            return new PredictionResult(0.5, "INSUFFICIENT_DATA",
+                    "No historical data available for prediction");
+        }
+        return predictFromPassRate(passRate, stats.get().getDecayedSampleSize(LocalDateTime.now()));
+    }
+
+    /**
+     * Predict from the pass rate of the last {@code lastExecutions} executions and/or those of the last
+     * {@code lastDays} days. Only status and start time of at most MAX_WINDOW_SIZE rows are read.
+     */
+    public PredictionResult predictWindowedTestOutcome(String testCaseId, Integer lastExecutions, Integer lastDays) {
+        int limit = lastExecutions != null ? Math.max(1, Math.min(lastExecutions, MAX_WINDOW_SIZE)) : MAX_WINDOW_SIZE;
+        List<ExecutionOutcome> outcomes = lastDays != null
+                ? testExecutionRepository.findRecentOutcomesSince(testCaseId,
+                        LocalDateTime.now().minusDays(lastDays), PageRequest.of(0, limit))
+                : testExecutionRepository.findRecentOutcomes(testCaseId, PageRequest.of(0, limit));
+
+        if (outcomes.isEmpty()) {
+            return new PredictionResult(0.5, "INSUFFICIENT_DATA",
+                    "No executions in the requested window");
+        }
+        long passed = outcomes.stream().filter(outcome -> "PASSED".equals(outcome.getStatus())).count();
+        return predictFromPassRate((double) passed / outcomes.size(), outcomes.size());
+    }
+
+    private PredictionResult predictFromPassRate(double passRate, double sampleSize) {
         double failureProbability = 1.0 - passRate;
 
         String confidence;
-        if (totalExecutions >= 20) {
+        if (sampleSize >= 20) {
             confidence = "HIGH";
-        } else if (totalExecutions >= 10) {
+        } else if (sampleSize >= 10) {
             confidence = "MEDIUM";
         } else {
             confidence = "LOW";
@@ -58,65 +98,56 @@ public class PredictionService {
     }
 
     /**
-     * Predict expected power level based on historical measurements
+     * Predict expected power level: mean of successful executions
      */
     public Double predictPowerLevel(String testCaseId) {
-        List<TestExecution> executions = testExecutionRepository.findByTestCaseId(testCaseId);
-        
-        List<Double> powerLevels = executions.stream()
-                .filter(e -> e.getPowerLevel() != null && "PASSED".equals(e.getStatus()))
-                .map(TestExecution::getPowerLevel)
-                .collect(Collectors.toList());
-        
-        if (powerLevels.isEmpty()) {
-            return null;
-        }
-
-        // Use mean of successful executions as prediction
-        return powerLevels.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        return statisticsStore.get(testCaseId).map(TestCaseStatistics::getPassedPowerMean).orElse(null);
     }
 
     /**
-     * Predict expected EVM based on historical measurements
+     * Predict expected EVM: mean of successful executions
      */
     public Double predictEVM(String testCaseId) {
-        List<TestExecution> executions = testExecutionRepository.findByTestCaseId(testCaseId);
-        
-        List<Double> evmValues = executions.stream()
-                .filter(e -> e.getEvm() != null && "PASSED".equals(e.getStatus()))
-                .map(TestExecution::getEvm)
-                .collect(Collectors.toList());
-        
-        if (evmValues.isEmpty()) {
-            return null;
-        }
-
-        return evmValues.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        return statisticsStore.get(testCaseId).map(TestCaseStatistics::getPassedEvmMean).orElse(null);
     }
 
     /**
-     * Predict expected test duration based on historical data
+     * Predict expected test duration: median (more robust to outliers), from a streaming quantile sketch
      */
     public Long predictDuration(String testCaseId) {
-        List<TestExecution> executions = testExecutionRepository.findByTestCaseId(testCaseId);
-        
-        List<Long> durations = executions.stream()
-                .filter(e -> e.getDurationMs() != null)
-                .map(TestExecution::getDurationMs)
-                .collect(Collectors.toList());
-        
-        if (durations.isEmpty()) {
-            return null;
-        }
+        return statisticsStore.get(testCaseId).map(TestCaseStatistics::getMedianDurationMs).orElse(null);
+    }
 
-        // Use median for duration prediction (more robust to outliers)
-        durations.sort(Long::compareTo);
-        int middle = durations.size() / 2;
-        if (durations.size() % 2 == 0) {
-            return (durations.get(middle - 1) + durations.get(middle)) / 2;
-        } else {
-            return durations.get(middle);
-        }
+    /**
+     * Rolling statistics behind the predictions for a test case
+     */
+    public Map<String, Object> getStatistics(String testCaseId) {
+        return statisticsStore.get(testCaseId).map(TestCaseStatistics::toMap).orElse(null);
+    }
+
+    /**
+     * p50/p90/p99 of power, EVM, ACPR and duration for a test case
+     */
+    public Map<String, Object> getPercentiles(String testCaseId) {
+        return statisticsStore.get(testCaseId).map(stats -> {
+            MetricSketches sketches = new MetricSketches();
+            stats.mergeSketchesInto(sketches);
+            return percentiles(sketches);
+        }).orElse(null);
+    }
+
+    /**
+     * p50/p90/p99 across all test cases of a technology (sketches merged, no history scan)
+     */
+    public Map<String, Object> getTechnologyPercentiles(String technology) {
+        MetricSketches sketches = statisticsStore.getTechnologySketches(technology);
+        return sketches != null ? percentiles(sketches) : null;
+    }
+
+    private Map<String, Object> percentiles(MetricSketches sketches) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        sketches.putPercentiles(percentiles);
+        return percentiles;
     }
 
     public static class PredictionResult {
@@ -0,0 +1,70 @@
+package com.radiotest.ml;
+
+/**
+ * A streaming anomaly detector: keeps a baseline per metric series (one metric of one test case)
+ * and scores each new value against it in O(1), independent of the history length.
+ * Scores are in sigma-equivalent units, so the same MEDIUM/HIGH thresholds apply to every detector.
+ * Implementations are Spring beans; AnomalyDetector uses the ones named in radiotest.anomaly.detectors.
+ */
+public interface StreamingDetector {
+    /**
+     * Smallest scale used when a baseline has no spread, relative to the magnitude of its centre.
+     * Keeps constant series from dividing by zero while still flagging any departure from them.
+     */
+    double MIN_RELATIVE_SCALE = 1e-6;
+
+    String getName();
+
+    Baseline newBaseline();
+
+    /**
+     * Deviation in units of scale, with a floor under the scale so a zero spread never divides by zero
+     */
+    static double standardize(double deviation, double scale, double center) {
+        if (deviation == 0) {
+            return 0;
+        }
+        double floor = MIN_RELATIVE_SCALE * Math.max(Math.abs(center), 1.0);
+        return Math.abs(deviation) / Math.max(scale, floor);
+    }
+
+    /**
+     * The values around center that {@link #standardize} scores below the given score: {low, high}, exclusive
+     */
+    static double[] range(double score, double scale, double center) {
+        double floor = MIN_RELATIVE_SCALE * Math.max(Math.abs(center), 1.0);
+        double halfWidth = score * Math.max(scale, floor);
+        return new double[]{center - halfWidth, center + halfWidth};
+    }
+
+    /**
+     * State for one metric series. Not thread-safe; callers serialize access per series.
+     */
+    interface Baseline {
+        /**
+         * Score a value against the baseline, then fold it in. NaN while the baseline is warming up.
+         */
+        double update(double value);
+
+        /**
+         * Score a value against the baseline without changing it. NaN while the baseline is warming up,
+         * and always for sequential detectors whose state only describes the latest values.
+         */
+        double score(double value);
+
+        /**
+         * The values that {@link #score} currently rates below the given score, as {low, high} (exclusive),
+         * so callers can preselect candidates without scoring every value. Null when score() is NaN.
+         */
+        default double[] getRange(double score) {
+            return null;
+        }
+
+        /**
+         * The value the baseline currently expects
+         */
+        double getExpected();
+
+        long getCount();
+    }
+}
@@ -0,0 +1,167 @@
+package com.radiotest.ml;
+
+import com.radiotest.analytics.MetricSketches;
+import com.radiotest.analytics.RunningStatistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling statistics for one test case, updated incrementally as executions complete.
+ * Power and EVM means are tracked over passed executions (what predictions are based on);
+ * durations and the percentile sketches cover all completed executions.
+ * <p>
+ * Alongside the all-time pass rate it keeps an exponentially time-decayed one: each execution is
+ * weighted by 2^(-age / half-life), relative to its start time. The weighted sums are kept at the latest
+ * start time seen, so an update costs O(1) whatever the history length or arrival order.
+ */
+public class TestCaseStatistics {
+    private final String testCaseId;
+    private volatile String technology;
+    private long totalExecutions;
+    private long passedExecutions;
+    private final RunningStatistics passedPower = new RunningStatistics();
+    private final RunningStatistics passedEvm = new RunningStatistics();
+    private final RunningStatistics duration = new RunningStatistics();
+    private final MetricSketches sketches = new MetricSketches();
+    private final double decayPerMs; // ln 2 / half-life; 0 disables decay
+    private double decayedTotal;
+    private double decayedPassed;
+    private long decayReferenceMs = Long.MIN_VALUE;
+
+    public TestCaseStatistics(String testCaseId, Duration decayHalfLife) {
+        this.testCaseId = testCaseId;
+        this.decayPerMs = decayHalfLife.isZero() || decayHalfLife.isNegative()
+                ? 0 : Math.log(2) / decayHalfLife.toMillis();
+    }
+
+    public synchronized void add(String technology, String status, LocalDateTime startTime, Double powerLevel,
+                                 Double evm, Double acpr, Long durationMs) {
+        if (technology != null) {
+            this.technology = technology;
+        }
+        totalExecutions++;
+        if (startTime != null) {
+            addDecayed(toMillis(startTime), "PASSED".equals(status));
+        }
+        sketches.add(powerLevel, evm, acpr, durationMs);
+        if ("PASSED".equals(status)) {
+            passedExecutions++;
+            if (powerLevel != null) {
+                passedPower.add(powerLevel);
+            }
+            if (evm != null) {
+                passedEvm.add(evm);
+            }
+        }
+        if (durationMs != null) {
+            duration.add(durationMs);
+        }
+    }
+
+    public String getTestCaseId() {
+        return testCaseId;
+    }
+
+    public String getTechnology() {
+        return technology;
+    }
+
+    public synchronized long getTotalExecutions() {
+        return totalExecutions;
+    }
+
+    public synchronized long getPassedExecutions() {
+        return passedExecutions;
+    }
+
+    /**
+     * Time-decayed pass rate (recent executions count more), null if no execution had a start time
+     */
+    public synchronized Double getDecayedPassRate() {
+        return decayedTotal > 0 ? decayedPassed / decayedTotal : null;
+    }
+
+    /**
+     * Sum of the decay weights as of the given time: the number of "fresh" executions the decayed rate rests on
+     */
+    public synchronized double getDecayedSampleSize(LocalDateTime now) {
+        if (decayedTotal == 0) {
+            return 0;
+        }
+        return decayedTotal * Math.exp(-decayPerMs * Math.max(0, toMillis(now) - decayReferenceMs));
+    }
+
+    public synchronized Double getPassedPowerMean() {
+        return passedPower.isEmpty() ? null : passedPower.getMean();
+    }
+
+    public synchronized Double getPassedEvmMean() {
+        return passedEvm.isEmpty() ? null : passedEvm.getMean();
+    }
+
+    public synchronized Long getMedianDurationMs() {
+        return sketches.getDuration().isEmpty() ? null : Math.round(sketches.getDuration().getQuantile(0.5));
+    }
+
+    /**
+     * Fold this test case's percentile sketches into an aggregate (e.g. all test cases of a technology)
+     */
+    public synchronized void mergeSketchesInto(MetricSketches target) {
+        target.merge(sketches);
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("testCaseId", testCaseId);
+        stats.put("technology", technology);
+        stats.put("totalExecutions", totalExecutions);
+        stats.put("passedExecutions", passedExecutions);
+        if (decayedTotal > 0) {
+            stats.put("decayedPassRate", decayedPassed / decayedTotal);
+            stats.put("decayedSampleSize", getDecayedSampleSize(LocalDateTime.now()));
+        }
+        putStatistics(stats, "passedPowerLevel", passedPower);
+        putStatistics(stats, "passedEvm", passedEvm);
+        putStatistics(stats, "duration", duration);
+        sketches.putPercentiles(stats);
+        return stats;
+    }
+
+    private void addDecayed(long timeMs, boolean passed) {
+        double weight = 1.0;
+        if (decayReferenceMs == Long.MIN_VALUE) {
+            decayReferenceMs = timeMs;
+        } else if (timeMs > decayReferenceMs) {
+            // Move the reference forward: age the existing sums instead of re-weighting history
+            double factor = Math.exp(-decayPerMs * (timeMs - decayReferenceMs));
+            decayedTotal *= factor;
+            decayedPassed *= factor;
+            decayReferenceMs = timeMs;
+        } else {
+            weight = Math.exp(-decayPerMs * (decayReferenceMs - timeMs)); // arrived out of order
+        }
+        decayedTotal += weight;
+        if (passed) {
+            decayedPassed += weight;
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static void putStatistics(Map<String, Object> stats, String prefix, RunningStatistics values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        stats.put(prefix + "Count", values.getCount());
+        stats.put(prefix + "Mean", values.getMean());
+        stats.put(prefix + "StdDev", values.getStdDev());
+        stats.put(prefix + "Min", values.getMin());
+        stats.put(prefix + "Max", values.getMax());
+    }
+}
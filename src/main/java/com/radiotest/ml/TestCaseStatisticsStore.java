@@ -0,0 +1,100 @@
+package com.radiotest.ml;
+
+import com.radiotest.analytics.MetricSketches;
+import com.radiotest.framework.ExecutionCompletedEvent;
+import com.radiotest.model.TestExecution;
+import com.radiotest.repository.ExecutionMetrics;
+import com.radiotest.repository.TestExecutionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory rolling statistics per test case.
+ * Rebuilt from the database at startup (before the web server accepts requests), then kept
+ * current from ExecutionCompletedEvents, so predictions no longer scan the execution history.
+ */
+@Component
+@Slf4j
+public class TestCaseStatisticsStore {
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final TestExecutionRepository testExecutionRepository;
+    private final Duration decayHalfLife;
+    private final Map<String, TestCaseStatistics> statistics = new ConcurrentHashMap<>();
+
+    public TestCaseStatisticsStore(TestExecutionRepository testExecutionRepository,
+                                   @Value("${radiotest.predictions.decay-half-life-hours:168}") double decayHalfLifeHours) {
+        this.testExecutionRepository = testExecutionRepository;
+        this.decayHalfLife = Duration.ofMillis(Math.round(decayHalfLifeHours * 3_600_000));
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long executions = 0;
+        Pageable pageSize = PageRequest.of(0, REBUILD_PAGE_SIZE);
+        long lastId = Long.MIN_VALUE;
+        List<ExecutionMetrics> page;
+        do {
+            page = testExecutionRepository.findMetricsAfter(lastId, pageSize);
+            for (ExecutionMetrics metrics : page) {
+                if (metrics.getTestCaseId() == null || "RUNNING".equals(metrics.getStatus())) {
+                    continue;
+                }
+                forTestCase(metrics.getTestCaseId()).add(metrics.getTechnology(), metrics.getStatus(),
+                        metrics.getStartTime(), metrics.getPowerLevel(), metrics.getEvm(), metrics.getAcpr(), metrics.getDurationMs());
+                executions++;
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Rebuilt rolling statistics for {} test cases from {} executions in {} ms",
+                statistics.size(), executions, System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onExecutionCompleted(ExecutionCompletedEvent event) {
+        TestExecution execution = event.getExecution();
+        if (execution.getTestCaseId() == null) {
+            return;
+        }
+        forTestCase(execution.getTestCaseId()).add(execution.getTechnology(), execution.getStatus(),
+                execution.getStartTime(), execution.getPowerLevel(), execution.getEvm(), execution.getAcpr(), execution.getDurationMs());
+    }
+
+    public Optional<TestCaseStatistics> get(String testCaseId) {
+        return Optional.ofNullable(statistics.get(testCaseId));
+    }
+
+    /**
+     * Percentile sketches merged across all test cases of a technology (null if none)
+     */
+    public MetricSketches getTechnologySketches(String technology) {
+        MetricSketches merged = null;
+        for (TestCaseStatistics testCase : statistics.values()) {
+            if (technology.equalsIgnoreCase(testCase.getTechnology())) {
+                if (merged == null) {
+                    merged = new MetricSketches();
+                }
+                testCase.mergeSketchesInto(merged);
+            }
+        }
+        return merged;
+    }
+
+    private TestCaseStatistics forTestCase(String testCaseId) {
+        return statistics.computeIfAbsent(testCaseId, id -> new TestCaseStatistics(id, decayHalfLife));
+    }
+}
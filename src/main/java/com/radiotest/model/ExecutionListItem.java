@@ -0,0 +1,31 @@
+package com.radiotest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Execution as shown in lists: every scalar column, without measurements and the test log
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionListItem {
+    private Long id;
+    private String testCaseId;
+    private String testCaseName;
+    private String technology;
+    private String status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long durationMs;
+    private Double powerLevel;
+    private Double frequencyHz;
+    private Double evm;
+    private Double acpr;
+    private String errorMessage;
+    private Integer plannedSamples;
+    private Integer samplesSaved;
+}
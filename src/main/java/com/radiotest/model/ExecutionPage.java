@@ -0,0 +1,20 @@
+package com.radiotest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of executions, newest first. Pass nextCursor back to get the following page;
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+}
@@ -0,0 +1,63 @@
+package com.radiotest.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Pre-aggregated statistics of the executions that started in one time bucket,
+ * per test case, technology and status. The payload is a serialized, mergeable
+ * ExecutionStatistics, so buckets can be combined into reports for any range.
+ */
+@Entity
+@Table(name = "execution_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket_key", columnNames = {"granularity", "bucket_start", "test_case_id", "technology", "status"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "execution_rollup_seq")
+    @SequenceGenerator(name = "execution_rollup_seq", sequenceName = "execution_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private Granularity granularity;
+    private LocalDateTime bucketStart;
+    private String testCaseId;
+    private String technology; // "" when unknown, so the unique constraint applies
+    private String status;
+    private Long executionCount;
+
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(name = "statistics_data", length = 1048576)
+    private byte[] statisticsData;
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime floor(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public LocalDateTime ceil(LocalDateTime time) {
+            LocalDateTime floor = floor(time);
+            return floor.equals(time) ? floor : floor.plus(1, unit);
+        }
+    }
+}
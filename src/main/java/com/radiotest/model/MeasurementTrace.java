@@ -0,0 +1,76 @@
+package com.radiotest.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only List view over a primitive double[] trace.
+ * Values are boxed only when individually accessed, so long traces loaded from the
+ * packed measurement column cost 8 bytes per sample instead of a boxed Double each.
+ */
+public final class MeasurementTrace extends AbstractList<Double> implements RandomAccess {
+    private static final MeasurementTrace EMPTY = new MeasurementTrace(new double[0]);
+
+    private final double[] values;
+
+    private MeasurementTrace(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Wrap a trace without copying it; the caller must not modify the array afterwards
+     */
+    public static MeasurementTrace wrap(double[] values) {
+        return values.length == 0 ? EMPTY : new MeasurementTrace(values);
+    }
+
+    /**
+     * Primitive copy of any measurement list (no copy-through-boxing for MeasurementTrace)
+     */
+    public static double[] toDoubleArray(List<Double> measurements) {
+        if (measurements == null) {
+            return new double[0];
+        }
+        if (measurements instanceof MeasurementTrace trace) {
+            return trace.values.clone();
+        }
+        double[] values = new double[measurements.size()];
+        for (int i = 0; i < values.length; i++) {
+            Double value = measurements.get(i);
+            values[i] = value != null ? value : Double.NaN;
+        }
+        return values;
+    }
+
+    @Override
+    public Double get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Primitive access without boxing
+     */
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof MeasurementTrace other) {
+            return Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,217 @@
+package com.radiotest.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding for measurement traces.
+ * <pre>
+ * byte    version   (1)
+ * byte    encoding  (0 = raw IEEE-754 doubles, 1 = Gorilla XOR compression)
+ * int     count
+ * byte[]  payload
+ * </pre>
+ * Gorilla compression (Pelkonen et al., VLDB 2015) XORs each value with its predecessor and stores
+ * only the meaningful bits, which suits slowly varying RF traces. It is lossless; the encoder falls
+ * back to raw doubles whenever compression would not make the trace smaller.
+ */
+public final class MeasurementTraceCodec {
+    public static final byte VERSION = 1;
+    public static final byte ENCODING_RAW = 0;
+    public static final byte ENCODING_GORILLA = 1;
+
+    private static final int HEADER_BYTES = 6;
+
+    private MeasurementTraceCodec() {
+    }
+
+    public static byte[] encode(double[] values) {
+        byte[] gorilla = encodeGorilla(values);
+        if (gorilla.length < HEADER_BYTES + values.length * Double.BYTES) {
+            return gorilla;
+        }
+        return encodeRaw(values);
+    }
+
+    public static double[] decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported measurement trace version: " + version);
+        }
+        byte encoding = buffer.get();
+        int count = buffer.getInt();
+        return switch (encoding) {
+            case ENCODING_RAW -> decodeRaw(buffer, count);
+            case ENCODING_GORILLA -> decodeGorilla(data, HEADER_BYTES, count);
+            default -> throw new IllegalArgumentException("Unknown measurement trace encoding: " + encoding);
+        };
+    }
+
+    public static byte[] encodeRaw(double[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + values.length * Double.BYTES);
+        buffer.put(VERSION).put(ENCODING_RAW).putInt(values.length);
+        for (double value : values) {
+            buffer.putDouble(value);
+        }
+        return buffer.array();
+    }
+
+    public static byte[] encodeGorilla(double[] values) {
+        BitWriter writer = new BitWriter(HEADER_BYTES + values.length * Double.BYTES + 16);
+        writer.writeHeader(ENCODING_GORILLA, values.length);
+        if (values.length == 0) {
+            return writer.toByteArray();
+        }
+
+        long previous = Double.doubleToRawLongBits(values[0]);
+        writer.writeBits(previous, 64);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+
+        for (int i = 1; i < values.length; i++) {
+            long current = Double.doubleToRawLongBits(values[i]);
+            long xor = current ^ previous;
+            if (xor == 0) {
+                writer.writeBit(false);
+            } else {
+                writer.writeBit(true);
+                int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                    // Meaningful bits fit inside the previous window
+                    writer.writeBit(false);
+                    writer.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                } else {
+                    int meaningful = 64 - leading - trailing;
+                    writer.writeBit(true);
+                    writer.writeBits(leading, 5);
+                    writer.writeBits(meaningful == 64 ? 0 : meaningful, 6);
+                    writer.writeBits(xor >>> trailing, meaningful);
+                    previousLeading = leading;
+                    previousTrailing = trailing;
+                }
+            }
+            previous = current;
+        }
+        return writer.toByteArray();
+    }
+
+    private static double[] decodeRaw(ByteBuffer buffer, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getDouble();
+        }
+        return values;
+    }
+
+    private static double[] decodeGorilla(byte[] data, int offset, int count) {
+        double[] values = new double[count];
+        if (count == 0) {
+            return values;
+        }
+        BitReader reader = new BitReader(data, offset);
+        long previous = reader.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int leading = 0;
+        int trailing = 0;
+
+        for (int i = 1; i < count; i++) {
+            if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leading = (int) reader.readBits(5);
+                    int meaningful = (int) reader.readBits(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                long xor = reader.readBits(64 - leading - trailing) << trailing;
+                previous ^= xor;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+        return values;
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer;
+        private long bitPosition;
+
+        BitWriter(int initialBytes) {
+            this.buffer = new byte[Math.max(initialBytes, HEADER_BYTES + 8)];
+        }
+
+        void writeHeader(byte encoding, int count) {
+            ByteBuffer.wrap(buffer).put(VERSION).put(encoding).putInt(count);
+            bitPosition = HEADER_BYTES * 8L;
+        }
+
+        void writeBit(boolean bit) {
+            ensureCapacity(1);
+            if (bit) {
+                buffer[(int) (bitPosition >>> 3)] |= (byte) (0x80 >>> (bitPosition & 7));
+            }
+            bitPosition++;
+        }
+
+        /**
+         * Write the low {@code bits} bits of value, most significant first, filling a byte at a time
+         */
+        void writeBits(long value, int bits) {
+            ensureCapacity(bits);
+            while (bits > 0) {
+                int free = 8 - (int) (bitPosition & 7);
+                int take = Math.min(free, bits);
+                int chunk = (int) (value >>> (bits - take)) & ((1 << take) - 1);
+                buffer[(int) (bitPosition >>> 3)] |= (byte) (chunk << (free - take));
+                bitPosition += take;
+                bits -= take;
+            }
+        }
+
+        byte[] toByteArray() {
+            int length = (int) ((bitPosition + 7) >>> 3);
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        }
+
+        private void ensureCapacity(int bits) {
+            long requiredBytes = (bitPosition + bits + 7) >>> 3;
+            if (requiredBytes > buffer.length) {
+                byte[] grown = new byte[(int) Math.max(requiredBytes, buffer.length * 2L)];
+                System.arraycopy(buffer, 0, grown, 0, buffer.length);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] data;
+        private long bitPosition;
+
+        BitReader(byte[] data, int byteOffset) {
+            this.data = data;
+            this.bitPosition = byteOffset * 8L;
+        }
+
+        boolean readBit() {
+            boolean bit = (data[(int) (bitPosition >>> 3)] & (0x80 >>> (bitPosition & 7))) != 0;
+            bitPosition++;
+            return bit;
+        }
+
+        long readBits(int bits) {
+            long value = 0;
+            while (bits > 0) {
+                int available = 8 - (int) (bitPosition & 7);
+                int take = Math.min(available, bits);
+                int chunk = ((data[(int) (bitPosition >>> 3)] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                bitPosition += take;
+                bits -= take;
+            }
+            return value;
+        }
+    }
+}
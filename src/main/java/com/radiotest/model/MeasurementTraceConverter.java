@@ -0,0 +1,30 @@
+package com.radiotest.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Stores a measurement list as a single packed binary column (see {@link MeasurementTraceCodec})
+ * and reads it back as a primitive-backed {@link MeasurementTrace}.
+ */
+@Converter
+public class MeasurementTraceConverter implements AttributeConverter<List<Double>, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<Double> measurements) {
+        if (measurements == null) {
+            return null;
+        }
+        return MeasurementTraceCodec.encode(MeasurementTrace.toDoubleArray(measurements));
+    }
+
+    @Override
+    public List<Double> convertToEntityAttribute(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return MeasurementTrace.wrap(MeasurementTraceCodec.decode(data));
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,8 +17,9 @@ import java.util.List;
 @AllArgsConstructor
 public class TestExecution {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_execution_seq")
+    @SequenceGenerator(name = "test_execution_seq", sequenceName = "test_executions_seq", allocationSize = 50)
+    private Long id; // sequence (not identity) so inserts can be JDBC-batched
     
     private String testCaseId;
     private String testCaseName;
@@ -26,18 +29,23 @@ public class TestExecution {
     private LocalDateTime endTime;
     private Long durationMs;
     
-    @ElementCollection
-    @CollectionTable(name = "test_measurements", joinColumns = @JoinColumn(name = "execution_id"))
-    @Column(name = "measurement")
-    private List<Double> measurements;
+    @Convert(converter = MeasurementTraceConverter.class)
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(name = "measurement_data", length = 16777216)
+    private List<Double> measurements; // packed trace, one column per execution
     
     private Double powerLevel;
     private Double frequencyHz;
     private Double evm; // Error Vector Magnitude
     private Double acpr; // Adjacent Channel Power Ratio
     private String errorMessage;
+    private Integer plannedSamples; // numMeasurements; a cap in sequential measurement mode
+    private Integer samplesSaved; // planned samples not taken because the outcome was decided early
     
     @Lob
     private String testLog;
+
+    @Column(name = "execution_key", unique = true)
+    private String executionKey; // source:executionId for executions ingested from other benches
 }
 
@@ -41,11 +41,14 @@ public class TestReport {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class AnomalyDetection {
+        private Long executionId;
         private String testCaseId;
         private String metric;
         private Double value;
         private Double expected;
         private Double deviation;
+        private Double score; // sigma-equivalent units
+        private String detector; // ewma, cusum, mad
         private String severity; // LOW, MEDIUM, HIGH
     }
 }
@@ -0,0 +1,19 @@
+package com.radiotest.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar results of an execution, without measurements or the test log
+ */
+public interface ExecutionMetrics {
+    Long getId();
+    String getTestCaseId();
+    String getTechnology();
+    String getStatus();
+    LocalDateTime getStartTime();
+    Double getPowerLevel();
+    Double getFrequencyHz();
+    Double getEvm();
+    Double getAcpr();
+    Long getDurationMs();
+}
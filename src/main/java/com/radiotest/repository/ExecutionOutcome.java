@@ -0,0 +1,11 @@
+package com.radiotest.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status and start time of an execution, enough for windowed pass-rate predictions
+ */
+public interface ExecutionOutcome {
+    String getStatus();
+    LocalDateTime getStartTime();
+}
@@ -0,0 +1,9 @@
+package com.radiotest.repository;
+
+/**
+ * Execution fields needed for a report line: the scalar metrics plus name and error message
+ */
+public interface ExecutionReportRow extends ExecutionMetrics {
+    String getTestCaseName();
+    String getErrorMessage();
+}
@@ -0,0 +1,21 @@
+package com.radiotest.repository;
+
+import com.radiotest.model.ExecutionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExecutionRollupRepository extends JpaRepository<ExecutionRollup, Long> {
+    Optional<ExecutionRollup> findByGranularityAndBucketStartAndTestCaseIdAndTechnologyAndStatus(
+            ExecutionRollup.Granularity granularity, LocalDateTime bucketStart,
+            String testCaseId, String technology, String status);
+
+    @Query("SELECT r FROM ExecutionRollup r WHERE r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<ExecutionRollup> findBuckets(ExecutionRollup.Granularity granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -1,22 +1,142 @@
 package com.radiotest.repository;
 
+import com.radiotest.model.ExecutionListItem;
 import com.radiotest.model.TestExecution;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface TestExecutionRepository extends JpaRepository<TestExecution, Long> {
     List<TestExecution> findByTestCaseId(String testCaseId);
-    List<TestExecution> findByStatus(String status);
     List<TestExecution> findByTechnology(String technology);
     List<TestExecution> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
     
-    @Query("SELECT e FROM TestExecution e WHERE e.testCaseId = :testCaseId ORDER BY e.startTime DESC")
-    List<TestExecution> findRecentExecutionsByTestCaseId(String testCaseId);
+    @Query("SELECT e FROM TestExecution e WHERE e.testCaseId = :testCaseId ORDER BY e.startTime DESC, e.id DESC")
+    List<TestExecution> findRecentExecutionsByTestCaseId(String testCaseId, Pageable pageable);
+    
+    String OUTCOME_SELECT = "SELECT e.status AS status, e.startTime AS startTime FROM TestExecution e " +
+            "WHERE e.testCaseId = :testCaseId AND e.status <> 'RUNNING' ";
+    
+    /**
+     * Latest completed outcomes of a test case, newest first (served by idx_execution_test_case_recent)
+     */
+    @Query(OUTCOME_SELECT + "ORDER BY e.startTime DESC, e.id DESC")
+    List<ExecutionOutcome> findRecentOutcomes(String testCaseId, Pageable pageable);
+    
+    @Query(OUTCOME_SELECT + "AND e.startTime >= :since ORDER BY e.startTime DESC, e.id DESC")
+    List<ExecutionOutcome> findRecentOutcomesSince(String testCaseId, LocalDateTime since, Pageable pageable);
+    
+    String METRICS_SELECT = "SELECT e.id AS id, e.testCaseId AS testCaseId, e.technology AS technology, " +
+            "e.status AS status, e.startTime AS startTime, e.powerLevel AS powerLevel, e.frequencyHz AS frequencyHz, " +
+            "e.evm AS evm, e.acpr AS acpr, e.durationMs AS durationMs FROM TestExecution e ";
+    
+    /**
+     * Scalar results with an id above lastId, in id order: keyset pages for full-table replays, each read
+     * straight from the primary key instead of skipping the rows of every earlier page
+     */
+    @Query(METRICS_SELECT + "WHERE e.id > :lastId ORDER BY e.id")
+    List<ExecutionMetrics> findMetricsAfter(Long lastId, Pageable pageable);
+    
+    @Query(METRICS_SELECT + "WHERE e.id IN :ids ORDER BY e.id")
+    List<ExecutionMetrics> findMetricsByIdIn(Collection<Long> ids);
+    
+    /**
+     * Ids above lastId of completed executions not yet counted in the rollups, in id order. The rolled_up
+     * column is not mapped: only ExecutionRollupService sets it, in the transaction that writes their rollups
+     */
+    @Query(value = "SELECT id FROM test_executions WHERE rolled_up = FALSE AND id > :lastId " +
+            "AND status <> 'RUNNING' AND start_time IS NOT NULL ORDER BY id", nativeQuery = true)
+    List<Long> findIdsNotRolledUpAfter(Long lastId, Pageable pageable);
+    
+    @Modifying
+    @Query(value = "UPDATE test_executions SET rolled_up = TRUE WHERE id IN (:ids)", nativeQuery = true)
+    int markRolledUp(Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "UPDATE test_executions SET rolled_up = FALSE WHERE rolled_up = TRUE", nativeQuery = true)
+    int clearRolledUp();
+    
+    @Query(METRICS_SELECT + "WHERE e.startTime >= :from AND e.startTime < :to")
+    List<ExecutionMetrics> findMetricsByStartTimeRange(LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Scalar results of one test case in [from, to) with any metric at or beyond its bounds, i.e. the
+     * anomaly candidates; walks the (test_case_id, start_time) index instead of the whole window
+     */
+    @Query(METRICS_SELECT + "WHERE e.testCaseId = :testCaseId AND e.startTime >= :from AND e.startTime < :to " +
+            "AND (e.powerLevel <= :powerLow OR e.powerLevel >= :powerHigh OR e.evm <= :evmLow OR e.evm >= :evmHigh " +
+            "OR e.acpr <= :acprLow OR e.acpr >= :acprHigh OR e.durationMs <= :durationLow OR e.durationMs >= :durationHigh)")
+    List<ExecutionMetrics> findMetricsOutsideBounds(String testCaseId, LocalDateTime from, LocalDateTime to,
+                                                    double powerLow, double powerHigh, double evmLow, double evmHigh,
+                                                    double acprLow, double acprHigh, long durationLow, long durationHigh);
+    
+    /**
+     * Report rows in [from, to), read through a forward-only cursor; must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e.id AS id, e.testCaseId AS testCaseId, e.testCaseName AS testCaseName, " +
+            "e.technology AS technology, e.status AS status, e.startTime AS startTime, e.powerLevel AS powerLevel, " +
+            "e.frequencyHz AS frequencyHz, e.evm AS evm, e.acpr AS acpr, e.durationMs AS durationMs, " +
+            "e.errorMessage AS errorMessage FROM TestExecution e " +
+            "WHERE e.startTime >= :from AND e.startTime < :to ORDER BY e.startTime, e.id")
+    Stream<ExecutionReportRow> streamReportRows(LocalDateTime from, LocalDateTime to);
+    
+    String LIST_ITEM_SELECT = "SELECT new com.radiotest.model.ExecutionListItem(e.id, e.testCaseId, e.testCaseName, " +
+            "e.technology, e.status, e.startTime, e.endTime, e.durationMs, e.powerLevel, e.frequencyHz, e.evm, e.acpr, " +
+            "e.errorMessage, e.plannedSamples, e.samplesSaved) FROM TestExecution e WHERE e.startTime IS NOT NULL ";
+    String BY_STATUS = "AND e.status = :status ";
+    String BY_TECHNOLOGY = "AND e.technology = :technology ";
+    // Same rows as "startTime < t OR (startTime = t AND id < cursorId)", plus an index range bound on startTime
+    String BEFORE_CURSOR = "AND e.startTime <= :cursorTime AND (e.startTime < :cursorTime OR e.id < :cursorId) ";
+    String NEWEST_FIRST = "e.startTime DESC, e.id DESC";
+    
+    // List items, newest first, with keyset pagination on (startTime, id): the first page, and the page strictly
+    // after a cursor. One query per filter combination, so each predicate matches an index (a catch-all
+    // "(:status IS NULL OR e.status = :status)" predicate cannot use any). The constant filter column leads the
+    // ORDER BY without changing the result, so the database can read its (filter, start_time, id) index in order
+    
+    @Query(LIST_ITEM_SELECT + "ORDER BY " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItems(Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BEFORE_CURSOR + "ORDER BY " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsBefore(LocalDateTime cursorTime, Long cursorId, Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BY_STATUS + "ORDER BY e.status, " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsByStatus(String status, Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BY_STATUS + BEFORE_CURSOR + "ORDER BY e.status, " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsByStatusBefore(String status, LocalDateTime cursorTime, Long cursorId,
+                                                        Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BY_TECHNOLOGY + "ORDER BY e.technology, " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsByTechnology(String technology, Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BY_TECHNOLOGY + BEFORE_CURSOR + "ORDER BY e.technology, " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsByTechnologyBefore(String technology, LocalDateTime cursorTime, Long cursorId,
+                                                            Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BY_STATUS + BY_TECHNOLOGY + "ORDER BY e.status, " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsByStatusAndTechnology(String status, String technology, Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + BY_STATUS + BY_TECHNOLOGY + BEFORE_CURSOR + "ORDER BY e.status, " + NEWEST_FIRST)
+    List<ExecutionListItem> findListItemsByStatusAndTechnologyBefore(String status, String technology,
+                                                                     LocalDateTime cursorTime, Long cursorId,
+                                                                     Pageable pageable);
+    
+    @Query("SELECT e.executionKey FROM TestExecution e WHERE e.executionKey IN :executionKeys")
+    Set<String> findExistingExecutionKeys(Collection<String> executionKeys);
     
     @Query("SELECT COUNT(e) FROM TestExecution e WHERE e.status = :status")
     Long countByStatus(String status);
@@ -0,0 +1,285 @@
+package com.radiotest.service;
+
+import com.radiotest.analytics.ExecutionStatistics;
+import com.radiotest.framework.ExecutionCompletedEvent;
+import com.radiotest.model.ExecutionRollup;
+import com.radiotest.model.ExecutionRollup.Granularity;
+import com.radiotest.model.TestExecution;
+import com.radiotest.repository.ExecutionMetrics;
+import com.radiotest.repository.ExecutionRollupRepository;
+import com.radiotest.repository.TestExecutionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Maintains per-minute, per-hour and per-day rollups of completed executions by test case,
+ * technology and status, and answers date-range statistics from them.
+ * Completions are merged into in-memory deltas and flushed to the rollup table periodically
+ * (and before every query). Each flush also sets test_executions.rolled_up for the executions it
+ * contains, in the same transaction, so at startup the executions without it (never backfilled, an
+ * interrupted backfill, or deltas lost when the process stopped before a flush) are added from raw rows.
+ * <p>
+ * A range is covered by whole day buckets in the middle, hour and minute buckets towards
+ * the edges, and raw rows only for the partial minutes at either end.
+ */
+@Service
+@Slf4j
+public class ExecutionRollupService {
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+    private static final int BACKFILL_PAGES_PER_FLUSH = 10;
+    private static final int MARK_CHUNK_SIZE = 1000;
+
+    private final ExecutionRollupRepository rollupRepository;
+    private final TestExecutionRepository testExecutionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean rebuildOnStartup;
+
+    // Recording holds the read lock, flush the write lock to take the deltas and their execution ids together
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    private Map<RollupKey, ExecutionStatistics> pending = new ConcurrentHashMap<>();
+    private Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    public ExecutionRollupService(ExecutionRollupRepository rollupRepository,
+                                  TestExecutionRepository testExecutionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${radiotest.rollups.enabled:true}") boolean enabled,
+                                  @Value("${radiotest.rollups.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.rollupRepository = rollupRepository;
+        this.testExecutionRepository = testExecutionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add every completed execution not yet counted in the rollups, in id order. A full rebuild
+     * (rebuild-on-startup) clears the rollups first.
+     */
+    @PostConstruct
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        if (rebuildOnStartup) {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.deleteAllInBatch();
+                testExecutionRepository.clearRolledUp();
+            });
+        }
+        long executions = 0;
+        int pages = 0;
+        Pageable pageSize = PageRequest.of(0, BACKFILL_PAGE_SIZE);
+        long lastId = Long.MIN_VALUE;
+        List<Long> ids;
+        do {
+            ids = testExecutionRepository.findIdsNotRolledUpAfter(lastId, pageSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (ExecutionMetrics metrics : testExecutionRepository.findMetricsByIdIn(ids)) {
+                record(metrics.getId(), metrics.getStartTime(), metrics.getTestCaseId(), metrics.getTechnology(),
+                        metrics.getStatus(), stats -> stats.add(metrics.getTechnology(), metrics.getStatus(),
+                                metrics.getPowerLevel(), metrics.getFrequencyHz(), metrics.getEvm(), metrics.getAcpr(),
+                                metrics.getDurationMs()));
+                executions++;
+            }
+            if (++pages % BACKFILL_PAGES_PER_FLUSH == 0) {
+                flush();
+            }
+            lastId = ids.get(ids.size() - 1);
+        } while (ids.size() == BACKFILL_PAGE_SIZE);
+        flush();
+        if (executions > 0) {
+            log.info("Added {} executions missing from the rollups in {} ms", executions,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    @EventListener
+    public void onExecutionCompleted(ExecutionCompletedEvent event) {
+        TestExecution execution = event.getExecution();
+        if (!enabled || execution.getStartTime() == null) {
+            return;
+        }
+        record(execution.getId(), execution.getStartTime(), execution.getTestCaseId(), execution.getTechnology(),
+                execution.getStatus(), stats -> stats.add(execution));
+    }
+
+    /**
+     * Write accumulated deltas into the rollup table
+     */
+    @Scheduled(fixedDelayString = "${radiotest.rollups.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<RollupKey, ExecutionStatistics> deltas;
+        Set<Long> executionIds;
+        pendingLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            deltas = pending;
+            executionIds = pendingIds;
+            pending = new ConcurrentHashMap<>();
+            pendingIds = ConcurrentHashMap.newKeySet();
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<ExecutionRollup> rollups = new ArrayList<>(deltas.size());
+                deltas.forEach((key, delta) -> rollups.add(applyDelta(key, delta)));
+                rollupRepository.saveAll(rollups);
+                List<Long> ids = new ArrayList<>(executionIds);
+                for (int i = 0; i < ids.size(); i += MARK_CHUNK_SIZE) {
+                    testExecutionRepository.markRolledUp(ids.subList(i, Math.min(i + MARK_CHUNK_SIZE, ids.size())));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to flush {} execution rollups, will retry: {}", deltas.size(), e.getMessage());
+            pendingLock.readLock().lock();
+            try {
+                deltas.forEach((key, delta) -> pending.merge(key, delta, (current, restored) -> {
+                    restored.merge(current);
+                    return restored;
+                }));
+                pendingIds.addAll(executionIds);
+            } finally {
+                pendingLock.readLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Statistics of all completed executions that started in [from, to)
+     */
+    public ExecutionStatistics aggregate(LocalDateTime from, LocalDateTime to) {
+        flush();
+        ExecutionStatistics total = new ExecutionStatistics();
+        LocalDateTime minuteStart = Granularity.MINUTE.ceil(from);
+        LocalDateTime minuteEnd = Granularity.MINUTE.floor(to);
+        if (!minuteStart.isBefore(minuteEnd)) {
+            addRaw(total, from, to);
+            return total;
+        }
+        addRaw(total, from, minuteStart);
+        addAligned(total, minuteStart, minuteEnd, Granularity.DAY);
+        addRaw(total, minuteEnd, to);
+        return total;
+    }
+
+    /**
+     * Cover a minute-aligned range with the coarsest buckets that fit, finer ones at the edges
+     */
+    private void addAligned(ExecutionStatistics total, LocalDateTime from, LocalDateTime to, Granularity granularity) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (granularity == Granularity.MINUTE) {
+            addBuckets(total, Granularity.MINUTE, from, to);
+            return;
+        }
+        Granularity finer = granularity == Granularity.DAY ? Granularity.HOUR : Granularity.MINUTE;
+        LocalDateTime alignedStart = granularity.ceil(from);
+        LocalDateTime alignedEnd = granularity.floor(to);
+        if (!alignedStart.isBefore(alignedEnd)) {
+            addAligned(total, from, to, finer);
+            return;
+        }
+        addAligned(total, from, alignedStart, finer);
+        addBuckets(total, granularity, alignedStart, alignedEnd);
+        addAligned(total, alignedEnd, to, finer);
+    }
+
+    private void addBuckets(ExecutionStatistics total, Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        for (ExecutionRollup rollup : rollupRepository.findBuckets(granularity, from, to)) {
+            total.merge(ExecutionStatistics.fromBytes(rollup.getStatisticsData()));
+        }
+    }
+
+    private void addRaw(ExecutionStatistics total, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        for (ExecutionMetrics metrics : testExecutionRepository.findMetricsByStartTimeRange(from, to)) {
+            if ("RUNNING".equals(metrics.getStatus())) {
+                continue; // rollups only hold completed executions
+            }
+            total.add(metrics.getTechnology(), metrics.getStatus(), metrics.getPowerLevel(),
+                    metrics.getFrequencyHz(), metrics.getEvm(), metrics.getAcpr(), metrics.getDurationMs());
+        }
+    }
+
+    private void record(Long executionId, LocalDateTime startTime, String testCaseId, String technology, String status,
+                        Consumer<ExecutionStatistics> update) {
+        pendingLock.readLock().lock();
+        try {
+            for (Granularity granularity : Granularity.values()) {
+                RollupKey key = new RollupKey(granularity, granularity.floor(startTime),
+                        testCaseId, technology != null ? technology : "", status);
+                pending.compute(key, (k, stats) -> {
+                    ExecutionStatistics target = stats != null ? stats : new ExecutionStatistics();
+                    update.accept(target);
+                    return target;
+                });
+            }
+            if (executionId != null) {
+                pendingIds.add(executionId);
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    private ExecutionRollup applyDelta(RollupKey key, ExecutionStatistics delta) {
+        ExecutionRollup rollup = rollupRepository
+                .findByGranularityAndBucketStartAndTestCaseIdAndTechnologyAndStatus(
+                        key.granularity(), key.bucketStart(), key.testCaseId(), key.technology(), key.status())
+                .orElseGet(() -> {
+                    ExecutionRollup created = new ExecutionRollup();
+                    created.setGranularity(key.granularity());
+                    created.setBucketStart(key.bucketStart());
+                    created.setTestCaseId(key.testCaseId());
+                    created.setTechnology(key.technology());
+                    created.setStatus(key.status());
+                    return created;
+                });
+        ExecutionStatistics merged = delta;
+        if (rollup.getStatisticsData() != null) {
+            merged = ExecutionStatistics.fromBytes(rollup.getStatisticsData());
+            merged.merge(delta);
+        }
+        rollup.setExecutionCount(merged.getCount());
+        rollup.setStatisticsData(merged.toBytes());
+        return rollup;
+    }
+
+    private record RollupKey(Granularity granularity, LocalDateTime bucketStart,
+                             String testCaseId, String technology, String status) {
+    }
+}
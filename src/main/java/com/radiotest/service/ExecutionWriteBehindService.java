@@ -0,0 +1,302 @@
+package com.radiotest.service;
+
+import com.radiotest.model.TestExecution;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind persistence for test executions.
+ * Executor threads hand their writes to a bounded queue; a single flusher thread drains
+ * whatever has accumulated and writes it in one transaction, so concurrent tests share
+ * JDBC batches instead of each paying several round trips:
+ * <ul>
+ *   <li>{@link #create} inserts the RUNNING row and waits for the batch to commit (the id is needed for updates)</li>
+ *   <li>{@link #complete} queues the final results and returns immediately; repeated completions of the
+ *       same execution within a batch are coalesced</li>
+ * </ul>
+ * A full queue blocks producers (backpressure) and remaining writes are flushed on shutdown; writes
+ * arriving after shutdown has begun are persisted synchronously by the caller. A completion that cannot
+ * be written is retried, and finally recorded as ERROR without its results, so no row is left RUNNING.
+ */
+@Service
+@Slf4j
+public class ExecutionWriteBehindService {
+    private final TestExecutionService testExecutionService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long commitTimeoutMs;
+    private final int maxAttempts;
+    private final BlockingQueue<PendingWrite> queue;
+
+    // Enqueues hold the read lock, shutdown the write lock: nothing is queued once the flusher may have stopped
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    private volatile boolean running = false;
+    private Thread flusher;
+
+    private final LongAdder batchesFlushed = new LongAdder();
+    private final LongAdder writesFlushed = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final LongAdder retriedWrites = new LongAdder();
+    private final LongAdder fallbackWrites = new LongAdder();
+    private final AtomicLong maxBatch = new AtomicLong();
+
+    public ExecutionWriteBehindService(TestExecutionService testExecutionService,
+                                       @Value("${radiotest.persistence.write-behind.enabled:true}") boolean enabled,
+                                       @Value("${radiotest.persistence.write-behind.max-batch-size:50}") int maxBatchSize,
+                                       @Value("${radiotest.persistence.write-behind.queue-capacity:1000}") int queueCapacity,
+                                       @Value("${radiotest.persistence.write-behind.commit-timeout-ms:30000}") long commitTimeoutMs,
+                                       @Value("${radiotest.persistence.write-behind.max-attempts:3}") int maxAttempts) {
+        this.testExecutionService = testExecutionService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.commitTimeoutMs = commitTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "execution-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Flush everything still queued before the application context goes away
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        lifecycle.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        flusher.join(Duration.ofSeconds(30).toMillis());
+        if (!queue.isEmpty()) {
+            log.warn("{} execution writes still pending at shutdown; flushing synchronously", queue.size());
+            List<PendingWrite> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Insert a new execution and return it with its generated id
+     */
+    public TestExecution create(TestExecution execution) {
+        if (execution.getStartTime() == null) {
+            execution.setStartTime(LocalDateTime.now());
+        }
+        if (execution.getStatus() == null) {
+            execution.setStatus("RUNNING");
+        }
+        PendingWrite write = new PendingWrite(execution, true);
+        if (!enqueue(write)) {
+            return testExecutionService.createExecution(execution);
+        }
+        try {
+            write.committed.get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+            return execution;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while persisting execution", e);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Execution not persisted within " + commitTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to persist execution: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Queue the final state (status, timings, measurements, log) of an execution created by {@link #create}
+     */
+    public void complete(TestExecution execution) {
+        if (execution.getEndTime() == null) {
+            execution.setEndTime(LocalDateTime.now());
+        }
+        if (execution.getDurationMs() == null && execution.getStartTime() != null) {
+            execution.setDurationMs(Duration.between(execution.getStartTime(), execution.getEndTime()).toMillis());
+        }
+        PendingWrite write = new PendingWrite(execution, false);
+        if (!enqueue(write)) {
+            flush(new ArrayList<>(List.of(write)));
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long batches = batchesFlushed.sum();
+        stats.put("enabled", enabled);
+        stats.put("pendingWrites", queue.size());
+        stats.put("batchesFlushed", batches);
+        stats.put("writesFlushed", writesFlushed.sum());
+        stats.put("failedWrites", failedWrites.sum());
+        stats.put("retriedWrites", retriedWrites.sum());
+        stats.put("fallbackWrites", fallbackWrites.sum());
+        stats.put("averageBatchSize", batches > 0 ? (double) writesFlushed.sum() / batches : 0.0);
+        stats.put("maxBatchSize", maxBatch.get());
+        return stats;
+    }
+
+    /**
+     * Queue a write for the flusher; returns false once shutdown has begun (the caller writes it itself)
+     */
+    private boolean enqueue(PendingWrite write) {
+        lifecycle.readLock().lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            // Blocks when the queue is full so executors slow down instead of overwhelming the database
+            queue.put(write);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while queueing execution write", e);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in execution write-behind flusher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            writeBatch(batch);
+        } catch (Exception e) {
+            log.warn("Batch of {} execution writes failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                try {
+                    if (write.insert) {
+                        write.execution.setId(null); // id assigned by the rolled-back attempt
+                    }
+                    writeBatch(List.of(write));
+                } catch (Exception single) {
+                    onWriteFailed(write, single);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts fail back to their waiting creator. Completions are queued again, up to max-attempts, and then
+     * recorded as ERROR without measurements and log (the part most likely to be rejected)
+     */
+    private void onWriteFailed(PendingWrite write, Exception error) {
+        TestExecution execution = write.execution;
+        if (write.insert) {
+            failedWrites.increment();
+            write.committed.completeExceptionally(error);
+            log.error("Failed to persist execution of {}", execution.getTestCaseId(), error);
+            return;
+        }
+        if (++write.attempts < maxAttempts && requeue(write)) {
+            retriedWrites.increment();
+            log.warn("Completion of execution {} failed (attempt {} of {}), retrying: {}",
+                    execution.getId(), write.attempts, maxAttempts, error.getMessage());
+            return;
+        }
+        TestExecution fallback = new TestExecution();
+        fallback.setId(execution.getId());
+        fallback.setStatus("ERROR");
+        fallback.setEndTime(execution.getEndTime());
+        fallback.setDurationMs(execution.getDurationMs());
+        fallback.setErrorMessage(truncate("Failed to persist results (" + execution.getStatus() + "): "
+                + error.getMessage()));
+        try {
+            testExecutionService.persistBatch(List.of(), List.of(fallback));
+            fallbackWrites.increment();
+            log.error("Persisted execution {} as ERROR after {} failed attempts", execution.getId(), write.attempts, error);
+        } catch (Exception fallbackError) {
+            failedWrites.increment();
+            log.error("Failed to persist execution {} ({}); row left RUNNING", execution.getId(),
+                    execution.getTestCaseId(), fallbackError);
+        }
+    }
+
+    private boolean requeue(PendingWrite write) {
+        lifecycle.readLock().lock();
+        try {
+            // Never block the flusher on its own queue
+            return running && queue.offer(write);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        List<TestExecution> inserts = new ArrayList<>();
+        Map<Long, TestExecution> completions = new LinkedHashMap<>(); // last completion per execution wins
+        for (PendingWrite write : batch) {
+            if (write.insert) {
+                inserts.add(write.execution);
+            } else {
+                completions.put(write.execution.getId(), write.execution);
+            }
+        }
+        testExecutionService.persistBatch(inserts, completions.values());
+
+        batchesFlushed.increment();
+        writesFlushed.add(batch.size());
+        maxBatch.accumulateAndGet(batch.size(), Math::max);
+        for (PendingWrite write : batch) {
+            write.committed.complete(null);
+        }
+    }
+
+    private static class PendingWrite {
+        private final TestExecution execution;
+        private final boolean insert;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+        private int attempts; // failed attempts so far, touched by the flusher only
+
+        PendingWrite(TestExecution execution, boolean insert) {
+            this.execution = execution;
+            this.insert = insert;
+        }
+    }
+}
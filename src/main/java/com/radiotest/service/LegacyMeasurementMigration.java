@@ -0,0 +1,125 @@
+package com.radiotest.service;
+
+import com.radiotest.model.MeasurementTraceCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema migration V4: moves measurements from the legacy one-row-per-value test_measurements
+ * table (V1) into the packed measurement_data column (V3), then drops the legacy table.
+ * Registered with Flyway as a bean, so it runs between the SQL migrations; executions are read
+ * in chunks, and the whole migration commits or rolls back as one transaction.
+ */
+@Component
+@Slf4j
+public class LegacyMeasurementMigration implements JavaMigration {
+    private static final String LEGACY_TABLE = "test_measurements";
+
+    private final int chunkSize;
+
+    public LegacyMeasurementMigration(@Value("${radiotest.measurements.migration-chunk-size:500}") int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("4");
+    }
+
+    @Override
+    public String getDescription() {
+        return "pack legacy measurements";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!legacyTableExists(connection)) {
+            return;
+        }
+        int migrated = 0;
+        long lastId = Long.MIN_VALUE;
+        List<Long> executionIds;
+        try (PreparedStatement chunk = connection.prepareStatement("SELECT DISTINCT execution_id FROM " + LEGACY_TABLE +
+                " WHERE execution_id > ? ORDER BY execution_id LIMIT ?");
+             PreparedStatement values = connection.prepareStatement(
+                     "SELECT measurement FROM " + LEGACY_TABLE + " WHERE execution_id = ?");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE test_executions SET measurement_data = ? WHERE id = ? AND measurement_data IS NULL")) {
+            do {
+                executionIds = queryIds(chunk, lastId);
+                for (Long executionId : executionIds) {
+                    update.setBytes(1, MeasurementTraceCodec.encode(readTrace(values, executionId)));
+                    update.setLong(2, executionId);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                migrated += executionIds.size();
+                if (!executionIds.isEmpty()) {
+                    lastId = executionIds.get(executionIds.size() - 1);
+                }
+            } while (executionIds.size() == chunkSize);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + LEGACY_TABLE);
+        }
+        log.info("Packed legacy measurements of {} executions and dropped {}", migrated, LEGACY_TABLE);
+    }
+
+    private List<Long> queryIds(PreparedStatement chunk, long lastId) throws SQLException {
+        chunk.setLong(1, lastId);
+        chunk.setInt(2, chunkSize);
+        List<Long> ids = new ArrayList<>(chunkSize);
+        try (ResultSet rows = chunk.executeQuery()) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static double[] readTrace(PreparedStatement values, long executionId) throws SQLException {
+        // The legacy collection had no order column; row order is the best available approximation
+        values.setLong(1, executionId);
+        List<Double> trace = new ArrayList<>();
+        try (ResultSet rows = values.executeQuery()) {
+            while (rows.next()) {
+                double value = rows.getDouble(1);
+                if (!rows.wasNull()) {
+                    trace.add(value);
+                }
+            }
+        }
+        return trace.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static boolean legacyTableExists(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : List.of(LEGACY_TABLE, LEGACY_TABLE.toUpperCase())) {
+            try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,46 +1,108 @@
 package com.radiotest.service;
 
+import com.radiotest.model.ExecutionListItem;
+import com.radiotest.model.ExecutionPage;
 import com.radiotest.model.TestExecution;
 import com.radiotest.repository.TestExecutionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TestExecutionService {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TestExecutionRepository testExecutionRepository;
 
-    public List<TestExecution> getAllExecutions() {
-        return testExecutionRepository.findAll();
+    /**
+     * One page of executions (optionally filtered by status and/or technology), newest first.
+     * The summary view reads scalar columns only; the full view also loads measurements and the test log.
+     */
+    public ExecutionPage<?> getExecutionsPage(String status, String technology, String cursor, int limit, boolean full) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<ExecutionListItem> items = cursor == null || cursor.isEmpty()
+                ? findListItems(status, technology, pageable)
+                : findListItemsBefore(status, technology, Cursor.decode(cursor), pageable);
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            ExecutionListItem last = items.get(pageSize - 1);
+            nextCursor = new Cursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        if (!full) {
+            return new ExecutionPage<>(items, nextCursor, pageSize);
+        }
+        Map<Long, TestExecution> entities = testExecutionRepository.findAllById(
+                        items.stream().map(ExecutionListItem::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(TestExecution::getId, Function.identity()));
+        List<TestExecution> executions = items.stream()
+                .map(item -> entities.get(item.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new ExecutionPage<>(executions, nextCursor, pageSize);
     }
 
-    public Optional<TestExecution> getExecutionById(Long id) {
-        return testExecutionRepository.findById(id);
+    private List<ExecutionListItem> findListItems(String status, String technology, Pageable pageable) {
+        if (status != null && technology != null) {
+            return testExecutionRepository.findListItemsByStatusAndTechnology(status, technology, pageable);
+        }
+        if (status != null) {
+            return testExecutionRepository.findListItemsByStatus(status, pageable);
+        }
+        if (technology != null) {
+            return testExecutionRepository.findListItemsByTechnology(technology, pageable);
+        }
+        return testExecutionRepository.findListItems(pageable);
     }
 
-    public List<TestExecution> getExecutionsByTestCaseId(String testCaseId) {
-        return testExecutionRepository.findByTestCaseId(testCaseId);
+    private List<ExecutionListItem> findListItemsBefore(String status, String technology, Cursor position,
+                                                        Pageable pageable) {
+        if (status != null && technology != null) {
+            return testExecutionRepository.findListItemsByStatusAndTechnologyBefore(status, technology,
+                    position.startTime, position.id, pageable);
+        }
+        if (status != null) {
+            return testExecutionRepository.findListItemsByStatusBefore(status, position.startTime, position.id, pageable);
+        }
+        if (technology != null) {
+            return testExecutionRepository.findListItemsByTechnologyBefore(technology, position.startTime, position.id,
+                    pageable);
+        }
+        return testExecutionRepository.findListItemsBefore(position.startTime, position.id, pageable);
     }
 
-    public List<TestExecution> getExecutionsByStatus(String status) {
-        return testExecutionRepository.findByStatus(status);
+    public Optional<TestExecution> getExecutionById(Long id) {
+        return testExecutionRepository.findById(id);
     }
 
-    public List<TestExecution> getExecutionsByTechnology(String technology) {
-        return testExecutionRepository.findByTechnology(technology);
+    public List<TestExecution> getExecutionsByTestCaseId(String testCaseId) {
+        return testExecutionRepository.findByTestCaseId(testCaseId);
     }
 
     public List<TestExecution> getExecutionsByDateRange(LocalDateTime start, LocalDateTime end) {
         return testExecutionRepository.findByStartTimeBetween(start, end);
     }
 
-    public List<TestExecution> getRecentExecutionsByTestCaseId(String testCaseId) {
-        return testExecutionRepository.findRecentExecutionsByTestCaseId(testCaseId);
+    /**
+     * The latest executions of a test case, newest first (at most MAX_PAGE_SIZE)
+     */
+    public List<TestExecution> getRecentExecutionsByTestCaseId(String testCaseId, int limit) {
+        return testExecutionRepository.findRecentExecutionsByTestCaseId(testCaseId,
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
     }
 
     @Transactional
@@ -59,20 +121,50 @@ public class TestExecutionService {
         TestExecution existing = testExecutionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("TestExecution not found with id: " + id));
         
-        existing.setStatus(execution.getStatus());
-        existing.setEndTime(execution.getEndTime());
-        existing.setDurationMs(execution.getDurationMs());
-        existing.setMeasurements(execution.getMeasurements());
-        existing.setPowerLevel(execution.getPowerLevel());
-        existing.setFrequencyHz(execution.getFrequencyHz());
-        existing.setEvm(execution.getEvm());
-        existing.setAcpr(execution.getAcpr());
-        existing.setErrorMessage(execution.getErrorMessage());
-        existing.setTestLog(execution.getTestLog());
+        applyResults(existing, execution);
         
         return testExecutionRepository.save(existing);
     }
 
+    /**
+     * Persist a batch of new executions and apply a batch of completed results in one transaction.
+     * New executions are inserted via the pooled sequence and completed ones are loaded with a single
+     * IN query, so Hibernate can send the inserts and updates as JDBC batches.
+     */
+    @Transactional
+    public List<TestExecution> persistBatch(List<TestExecution> newExecutions, Collection<TestExecution> completedExecutions) {
+        List<TestExecution> created = testExecutionRepository.saveAll(newExecutions);
+        
+        if (!completedExecutions.isEmpty()) {
+            Map<Long, TestExecution> existing = testExecutionRepository.findAllById(
+                    completedExecutions.stream().map(TestExecution::getId).collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(TestExecution::getId, Function.identity()));
+            for (TestExecution completed : completedExecutions) {
+                TestExecution target = existing.get(completed.getId());
+                if (target == null) {
+                    throw new RuntimeException("TestExecution not found with id: " + completed.getId());
+                }
+                applyResults(target, completed);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Insert executions received from other benches in one transaction, skipping execution keys that
+     * are already stored (or repeated within the batch). Returns the executions actually inserted.
+     */
+    @Transactional
+    public List<TestExecution> ingestExecutions(List<TestExecution> executions) {
+        Map<String, TestExecution> byKey = new LinkedHashMap<>();
+        for (TestExecution execution : executions) {
+            byKey.putIfAbsent(execution.getExecutionKey(), execution);
+        }
+        testExecutionRepository.findExistingExecutionKeys(byKey.keySet()).forEach(byKey::remove);
+        return testExecutionRepository.saveAll(byKey.values());
+    }
+
     @Transactional
     public TestExecution completeExecution(Long id, String status, String errorMessage) {
         TestExecution execution = testExecutionRepository.findById(id)
@@ -94,5 +186,40 @@ public class TestExecutionService {
     public Long countByStatus(String status) {
         return testExecutionRepository.countByStatus(status);
     }
-}
 
+    private void applyResults(TestExecution existing, TestExecution execution) {
+        existing.setStatus(execution.getStatus());
+        existing.setEndTime(execution.getEndTime());
+        existing.setDurationMs(execution.getDurationMs());
+        existing.setMeasurements(execution.getMeasurements());
+        existing.setPowerLevel(execution.getPowerLevel());
+        existing.setFrequencyHz(execution.getFrequencyHz());
+        existing.setEvm(execution.getEvm());
+        existing.setAcpr(execution.getAcpr());
+        existing.setErrorMessage(execution.getErrorMessage());
+        existing.setPlannedSamples(execution.getPlannedSamples());
+        existing.setSamplesSaved(execution.getSamplesSaved());
+        existing.setTestLog(execution.getTestLog());
+    }
+
+    /**
+     * Opaque keyset cursor: the (startTime, id) of the last item on the previous page
+     */
+    private record Cursor(LocalDateTime startTime, Long id) {
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+    }
+}
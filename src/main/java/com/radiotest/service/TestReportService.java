@@ -1,24 +1,51 @@
 package com.radiotest.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radiotest.analytics.ExecutionStatistics;
 import com.radiotest.analytics.SparkAnalyticsService;
+import com.radiotest.ml.AnomalyDetector;
 import com.radiotest.model.TestExecution;
 import com.radiotest.model.TestReport;
+import com.radiotest.repository.ExecutionMetrics;
+import com.radiotest.repository.ExecutionReportRow;
 import com.radiotest.repository.TestExecutionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TestReportService {
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+
     private final TestExecutionRepository testExecutionRepository;
     private final AnalyticsService analyticsService;
     private final SparkAnalyticsService sparkAnalyticsService;
+    private final ExecutionRollupService executionRollupService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Report over executions started between startTime and endTime (inclusive).
+     * Answered from rollups unless per-execution summaries are requested.
+     */
+    @Transactional(readOnly = true)
+    public TestReport generateReport(String testSuite, LocalDateTime startTime, LocalDateTime endTime,
+                                     boolean includeExecutions) {
+        if (!includeExecutions && executionRollupService.isEnabled()) {
+            return generateReportFromRollups(testSuite, startTime, endTime);
+        }
+        return generateReport(testSuite, startTime, endTime);
+    }
 
     public TestReport generateReport(String testSuite, LocalDateTime startTime, LocalDateTime endTime) {
         List<TestExecution> executions = testExecutionRepository.findByStartTimeBetween(startTime, endTime);
@@ -74,6 +101,129 @@ public class TestReportService {
         return report;
     }
 
+    private TestReport generateReportFromRollups(String testSuite, LocalDateTime startTime, LocalDateTime endTime) {
+        // Between is inclusive; rollup ranges are half-open
+        LocalDateTime endExclusive = endTime.plusNanos(1);
+        ExecutionStatistics stats = executionRollupService.aggregate(startTime, endExclusive);
+        
+        if (stats.getCount() == 0) {
+            return createEmptyReport(testSuite);
+        }
+
+        return buildAggregateReport(testSuite, stats, findAnomalies(startTime, endExclusive));
+    }
+
+    private List<TestReport.AnomalyDetection> findAnomalies(LocalDateTime from, LocalDateTime to) {
+        // Only rows outside their test case's alert bounds can be anomalies: ask the database for those,
+        // one index range per test case with a warm baseline, and score just the candidates
+        AnomalyDetector.Scan anomalies = analyticsService.newAnomalyScan();
+        analyticsService.getAnomalyBounds().forEach((testCaseId, bounds) ->
+                findAnomalyCandidates(testCaseId, bounds, from, to).forEach(anomalies::accept));
+        return anomalies.getAnomalies();
+    }
+
+    private List<ExecutionMetrics> findAnomalyCandidates(String testCaseId, AnomalyDetector.AlertBounds bounds,
+                                                         LocalDateTime from, LocalDateTime to) {
+        double[] low = bounds.low();
+        double[] high = bounds.high();
+        // Infinite bounds select nothing; durations are whole milliseconds, so rounding outwards keeps every candidate
+        return testExecutionRepository.findMetricsOutsideBounds(testCaseId, from, to,
+                finite(low[0]), finite(high[0]), finite(low[1]), finite(high[1]), finite(low[2]), finite(high[2]),
+                (long) Math.max(Math.floor(low[3]), Long.MIN_VALUE), (long) Math.min(Math.ceil(high[3]), Long.MAX_VALUE));
+    }
+
+    private static double finite(double bound) {
+        return Math.max(-Double.MAX_VALUE, Math.min(Double.MAX_VALUE, bound));
+    }
+
+    /**
+     * Stream a report as NDJSON: one line per completed execution, then a final line with the report aggregates.
+     * Executions are read through a database cursor and statistics accumulated on the fly, so memory use
+     * does not grow with the size of the window and the first lines are sent immediately. Anomalies are
+     * fetched afterwards with the same per-test-case bounds query as rollup reports.
+     */
+    @Transactional(readOnly = true)
+    public void streamReport(String testSuite, LocalDateTime startTime, LocalDateTime endTime,
+                             OutputStream output) throws IOException {
+        LocalDateTime endExclusive = endTime.plusNanos(1);
+        ExecutionStatistics stats = new ExecutionStatistics();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null); // lines are separated explicitly
+
+        try (Stream<ExecutionReportRow> rows = testExecutionRepository.streamReportRows(startTime, endExclusive)) {
+            Iterator<ExecutionReportRow> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                ExecutionReportRow row = iterator.next();
+                if ("RUNNING".equals(row.getStatus())) {
+                    continue; // same executions as the rollup report
+                }
+                stats.add(row.getTechnology(), row.getStatus(), row.getPowerLevel(), row.getFrequencyHz(),
+                        row.getEvm(), row.getAcpr(), row.getDurationMs());
+                writeSummaryLine(generator, row);
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        TestReport report;
+        if (stats.getCount() == 0) {
+            report = createEmptyReport(testSuite);
+        } else {
+            report = buildAggregateReport(testSuite, stats, findAnomalies(startTime, endExclusive));
+        }
+        generator.writeStartObject();
+        generator.writeStringField("type", "report");
+        generator.writeFieldName("report");
+        objectMapper.writeValue(generator, report);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+    private void writeSummaryLine(JsonGenerator generator, ExecutionReportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "execution");
+        generator.writeStringField("testCaseId", row.getTestCaseId());
+        generator.writeStringField("testCaseName", row.getTestCaseName());
+        generator.writeStringField("status", row.getStatus());
+        if (row.getDurationMs() != null) {
+            generator.writeNumberField("durationMs", row.getDurationMs());
+        } else {
+            generator.writeNullField("durationMs");
+        }
+        generator.writeStringField("errorMessage", row.getErrorMessage());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Report built from aggregated statistics only (no per-execution summaries)
+     */
+    private TestReport buildAggregateReport(String testSuite, ExecutionStatistics stats,
+                                            List<TestReport.AnomalyDetection> anomalies) {
+        int totalTests = (int) stats.getCount();
+        int passedTests = (int) stats.getStatusCount("PASSED");
+        double passRate = totalTests > 0 ? (double) passedTests / totalTests * 100 : 0.0;
+
+        TestReport report = new TestReport();
+        report.setReportId(UUID.randomUUID().toString());
+        report.setGeneratedAt(LocalDateTime.now());
+        report.setTestSuite(testSuite);
+        report.setTotalTests(totalTests);
+        report.setPassedTests(passedTests);
+        report.setFailedTests((int) stats.getStatusCount("FAILED"));
+        report.setErrorTests((int) stats.getStatusCount("ERROR"));
+        report.setPassRate(passRate);
+        report.setTotalDurationMs(stats.getTotalDurationMs());
+        report.setExecutions(new ArrayList<>());
+        report.setStatistics(stats.toMap());
+        report.setAnomalies(anomalies);
+        return report;
+    }
+
     public TestReport generateReportByTestCaseId(String testCaseId) {
         List<TestExecution> executions = testExecutionRepository.findByTestCaseId(testCaseId);
         
@@ -0,0 +1,52 @@
+-- Baseline schema: exactly what Hibernate generated from the entities before the schema moved to Flyway.
+-- Existing databases are baselined at this version and skip it, so everything added since then
+-- belongs in the later migrations.
+
+CREATE TABLE IF NOT EXISTS test_cases (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    test_case_id          VARCHAR(255),
+    name                  VARCHAR(255),
+    description           VARCHAR(255),
+    technology            VARCHAR(255),
+    category              VARCHAR(255),
+    expected_power_min    FLOAT(53),
+    expected_power_max    FLOAT(53),
+    expected_frequency_hz FLOAT(53),
+    expected_evm_max      FLOAT(53),
+    expected_acpr_max     FLOAT(53),
+    enabled               BOOLEAN,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS test_parameters (
+    test_case_id BIGINT       NOT NULL,
+    param_key    VARCHAR(255) NOT NULL,
+    param_value  VARCHAR(255),
+    PRIMARY KEY (test_case_id, param_key),
+    CONSTRAINT fk_test_parameters_test_case FOREIGN KEY (test_case_id) REFERENCES test_cases (id)
+);
+
+CREATE TABLE IF NOT EXISTS test_executions (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    test_case_id   VARCHAR(255),
+    test_case_name VARCHAR(255),
+    technology     VARCHAR(255),
+    status         VARCHAR(255),
+    start_time     TIMESTAMP(6),
+    end_time       TIMESTAMP(6),
+    duration_ms    BIGINT,
+    power_level    FLOAT(53),
+    frequency_hz   FLOAT(53),
+    evm            FLOAT(53),
+    acpr           FLOAT(53),
+    error_message  VARCHAR(255),
+    test_log       CLOB,
+    PRIMARY KEY (id)
+);
+
+-- One row per measurement value; replaced by test_executions.measurement_data (V3, V4)
+CREATE TABLE IF NOT EXISTS test_measurements (
+    execution_id BIGINT NOT NULL,
+    measurement  FLOAT(53),
+    CONSTRAINT fk_test_measurements_execution FOREIGN KEY (execution_id) REFERENCES test_executions (id)
+);
@@ -0,0 +1,8 @@
+-- test_executions ids come from test_executions_seq (allocation size 50) so inserts can be JDBC-batched.
+-- Existing executions got their ids from the IDENTITY column, so a sequence starting at 1 would hand out
+-- ids that collide with them. Hibernate's pooled optimizer uses the 50 ids up to each value it reads,
+-- so start the sequence at least 50 above max(id), on an allocation boundary.
+CREATE SEQUENCE IF NOT EXISTS test_executions_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE test_executions_seq RESTART WITH (
+    SELECT CASE WHEN MAX(id) IS NULL THEN 1 ELSE (MAX(id) / 50 + 2) * 50 END FROM test_executions);
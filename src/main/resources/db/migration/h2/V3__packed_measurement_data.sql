@@ -0,0 +1,3 @@
+-- Measurement traces are stored packed (raw or Gorilla-compressed doubles) in one column per execution;
+-- the legacy test_measurements rows are moved into it by V4 (LegacyMeasurementMigration)
+ALTER TABLE test_executions ADD COLUMN IF NOT EXISTS measurement_data BLOB;
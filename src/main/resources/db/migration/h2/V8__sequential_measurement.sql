@@ -0,0 +1,4 @@
+-- Planned sample count of each execution and the samples not taken because sequential measurement
+-- (or early abort) decided the outcome first; null for executions recorded before this migration
+ALTER TABLE test_executions ADD COLUMN IF NOT EXISTS planned_samples INTEGER;
+ALTER TABLE test_executions ADD COLUMN IF NOT EXISTS samples_saved INTEGER;
@@ -0,0 +1,13 @@
+-- Listings are read newest first (ORDER BY start_time DESC, id DESC). H2 does not scan an ascending
+-- index backwards for that order, so with the V6 indexes it read every matching row and sorted them.
+-- Declare the sort key descending instead; date-range queries use the same indexes as range scans.
+-- (PostgreSQL scans B-tree indexes in either direction, so its V6 indexes are left as they are.)
+
+DROP INDEX IF EXISTS idx_execution_start_time;
+CREATE INDEX IF NOT EXISTS idx_execution_start_time ON test_executions (start_time DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_execution_status_start_time;
+CREATE INDEX IF NOT EXISTS idx_execution_status_start_time ON test_executions (status, start_time DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_execution_technology_start_time;
+CREATE INDEX IF NOT EXISTS idx_execution_technology_start_time ON test_executions (technology, start_time DESC, id DESC);
@@ -0,0 +1,9 @@
+-- test_executions ids come from test_executions_seq (allocation size 50) so inserts can be JDBC-batched.
+-- Existing executions got their ids from the IDENTITY column, so a sequence starting at 1 would hand out
+-- ids that collide with them. Hibernate's pooled optimizer uses the 50 ids up to each value it reads,
+-- so start the sequence at least 50 above max(id), on an allocation boundary.
+CREATE SEQUENCE IF NOT EXISTS test_executions_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('test_executions_seq', (MAX(id) / 50 + 2) * 50, false)
+FROM test_executions
+HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,23 @@
+-- Time-bucketed execution statistics (minute/hour/day) by test case, technology and status,
+-- filled by ExecutionRollupService; date-range reports merge whole buckets
+CREATE SEQUENCE IF NOT EXISTS execution_rollups_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS execution_rollups (
+    id              BIGINT NOT NULL,
+    granularity     VARCHAR(8) CHECK (granularity IN ('MINUTE', 'HOUR', 'DAY')),
+    bucket_start    TIMESTAMP(6),
+    test_case_id    VARCHAR(255),
+    technology      VARCHAR(255),
+    status          VARCHAR(255),
+    execution_count BIGINT,
+    statistics_data BYTEA,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_bucket_key UNIQUE (granularity, bucket_start, test_case_id, technology, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rollup_bucket ON execution_rollups (granularity, bucket_start);
+
+-- Whether an execution's results are counted in the rollups; set in the same transaction as its rollup
+-- rows, so executions left unset by an interrupted backfill or a lost flush are reconciled at startup
+ALTER TABLE test_executions ADD COLUMN IF NOT EXISTS rolled_up BOOLEAN DEFAULT FALSE NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_execution_rollup_pending ON test_executions (id) WHERE NOT rolled_up;
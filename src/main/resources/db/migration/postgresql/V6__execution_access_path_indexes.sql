@@ -0,0 +1,15 @@
+-- Composite indexes matching the TestExecutionRepository access paths.
+-- Every listing is ordered newest first and paged by (start_time, id), so each filter column
+-- is followed by the sort key to let the index serve both the filter and the ORDER BY.
+
+-- Date-range reports, rollup edges and unfiltered listings
+CREATE INDEX IF NOT EXISTS idx_execution_start_time ON test_executions (start_time, id);
+
+-- Listings and counts by status / technology
+CREATE INDEX IF NOT EXISTS idx_execution_status_start_time ON test_executions (status, start_time, id);
+CREATE INDEX IF NOT EXISTS idx_execution_technology_start_time ON test_executions (technology, start_time, id);
+
+-- Recent executions of a test case; covering (index-only scans) for metric projections
+CREATE INDEX IF NOT EXISTS idx_execution_test_case_recent
+    ON test_executions (test_case_id, start_time DESC, id DESC)
+    INCLUDE (status, power_level, evm, acpr, duration_ms);
@@ -0,0 +1,4 @@
+-- Executions ingested from other benches carry a globally unique key (source:executionId) used to
+-- deduplicate redelivered Kafka records; locally run executions leave it null
+ALTER TABLE test_executions ADD COLUMN IF NOT EXISTS execution_key VARCHAR(255);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_execution_key ON test_executions (execution_key);
@@ -33,25 +33,25 @@ function showSection(sectionId) {
 // Dashboard
 async function loadDashboard() {
     try {
-        const [executions, testCases] = await Promise.all([
-            fetch(`${API_BASE}/test-executions`).then(r => r.json()),
+        const [recent, passed, failed, testCases] = await Promise.all([
+            fetch(`${API_BASE}/test-executions?limit=10`).then(r => r.json()),
+            fetch(`${API_BASE}/test-executions/stats/count?status=PASSED`).then(r => r.json()),
+            fetch(`${API_BASE}/test-executions/stats/count?status=FAILED`).then(r => r.json()),
             fetch(`${API_BASE}/test-cases`).then(r => r.json())
         ]);
 
         // Update stats
-        const passed = executions.filter(e => e.status === 'PASSED').length;
-        const failed = executions.filter(e => e.status === 'FAILED').length;
         const total = testCases.length; // Total test cases, not executions
-        const completedExecutions = executions.filter(e => e.status === 'PASSED' || e.status === 'FAILED');
-        const passRate = completedExecutions.length > 0 ? ((passed / completedExecutions.length) * 100).toFixed(1) : 0;
+        const completed = passed + failed;
+        const passRate = completed > 0 ? ((passed / completed) * 100).toFixed(1) : 0;
 
         document.getElementById('stat-passed').textContent = passed;
         document.getElementById('stat-failed').textContent = failed;
         document.getElementById('stat-total').textContent = total;
         document.getElementById('stat-pass-rate').textContent = `${passRate}%`;
 
-        // Update recent executions
-        const recentExecutions = executions.slice(0, 10).reverse();
+        // Update recent executions (newest first)
+        const recentExecutions = recent.items;
         const tbody = document.getElementById('executions-table-body');
         
         if (recentExecutions.length === 0) {
@@ -104,21 +104,30 @@ async function loadTestCases() {
 }
 
 // Executions
-async function loadAllExecutions() {
+let executionsCursor = null;
+
+async function loadAllExecutions(append = false) {
     try {
         let url = `${API_BASE}/test-executions`;
         const statusFilter = document.getElementById('status-filter')?.value;
         if (statusFilter) {
             url = `${API_BASE}/test-executions/status/${statusFilter}`;
         }
+        url += '?limit=50';
+        if (append && executionsCursor) {
+            url += `&cursor=${encodeURIComponent(executionsCursor)}`;
+        }
         
-        const executions = await fetch(url).then(r => r.json());
+        const page = await fetch(url).then(r => r.json());
+        const executions = page.items;
+        executionsCursor = page.nextCursor;
         const tbody = document.getElementById('all-executions-table-body');
+        tbody.querySelector('.load-more-row')?.remove();
         
-        if (executions.length === 0) {
+        if (executions.length === 0 && !append) {
             tbody.innerHTML = '<tr><td colspan="9" class="empty-state">No executions found.</td></tr>';
         } else {
-            tbody.innerHTML = executions.reverse().map(exec => `
+            const rows = executions.map(exec => `
                 <tr>
                     <td>${exec.id}</td>
                     <td>${exec.testCaseId || 'N/A'}</td>
@@ -131,6 +140,10 @@ async function loadAllExecutions() {
                     <td>${exec.startTime ? new Date(exec.startTime).toLocaleString() : 'N/A'}</td>
                 </tr>
             `).join('');
+            const loadMore = executionsCursor
+                ? '<tr class="load-more-row"><td colspan="9" class="empty-state"><button class="btn btn-primary" onclick="loadAllExecutions(true)">Load more</button></td></tr>'
+                : '';
+            tbody.innerHTML = (append ? tbody.innerHTML : '') + rows + loadMore;
         }
     } catch (error) {
         console.error('Error loading executions:', error);
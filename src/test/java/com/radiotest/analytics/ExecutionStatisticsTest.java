@@ -0,0 +1,141 @@
+package com.radiotest.analytics;
+
+import com.radiotest.model.TestExecution;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * The single-pass statistics must reproduce the two-pass computation they replaced (mean, then the mean
+ * squared deviation from it; population standard deviation, 0 below two values), whether the executions
+ * are added one by one, merged from partitions, or restored from their serialized form
+ */
+class ExecutionStatisticsTest {
+    private static final String[] TECHNOLOGIES = {"5G", "LTE", "W-CDMA", "GSM"};
+    private static final String[] STATUSES = {"PASSED", "PASSED", "FAILED", "ERROR"};
+
+    @Test
+    void singlePassMatchesTwoPass() {
+        List<TestExecution> executions = executions(5_000, 3.5e9);
+        assertMatchesTwoPass(executions, ExecutionStatistics.of(executions).toMap());
+    }
+
+    @Test
+    void largeOffsetsKeepTheirPrecision() {
+        // Frequencies near 3.5 GHz vary by a few Hz: a one-pass sum of squares would cancel to noise here
+        List<TestExecution> executions = executions(5_000, 3.5e9);
+        Map<String, Object> stats = ExecutionStatistics.of(executions).toMap();
+        double standardDeviation = (double) stats.get("frequencyStdDev");
+        assertEquals(twoPass(executions, TestExecution::getFrequencyHz)[1], standardDeviation, 1e-6);
+        assertEquals(2.0, standardDeviation, 0.1);
+    }
+
+    @Test
+    void mergedPartitionsMatchOnePass() {
+        List<TestExecution> executions = executions(3_001, 3.5e9);
+        ExecutionStatistics merged = new ExecutionStatistics();
+        for (int from = 0; from < executions.size(); from += 700) {
+            merged.merge(ExecutionStatistics.of(executions.subList(from, Math.min(from + 700, executions.size()))));
+        }
+        merged.merge(new ExecutionStatistics());
+        assertMatchesTwoPass(executions, merged.toMap());
+    }
+
+    @Test
+    void serializedFormRestoresTheSameStatistics() {
+        List<TestExecution> executions = executions(1_000, 1.8e9);
+        ExecutionStatistics statistics = ExecutionStatistics.of(executions);
+        assertEquals(statistics.toMap(), ExecutionStatistics.fromBytes(statistics.toBytes()).toMap());
+    }
+
+    @Test
+    void singleValuesHaveNoSpread() {
+        TestExecution execution = execution("LTE", "PASSED", -7.5, 2.1e9, 1.2, -45.0, 900L);
+        Map<String, Object> stats = ExecutionStatistics.of(List.of(execution)).toMap();
+        assertEquals(-7.5, stats.get("powerLevelMean"));
+        assertEquals(0.0, stats.get("powerLevelStdDev"));
+        assertEquals(900L, stats.get("durationMin"));
+        assertEquals(0.0, stats.get("durationStdDev"));
+    }
+
+    private static void assertMatchesTwoPass(List<TestExecution> executions, Map<String, Object> stats) {
+        assertMetric(stats, "powerLevel", twoPass(executions, TestExecution::getPowerLevel));
+        assertMetric(stats, "frequency", twoPass(executions, TestExecution::getFrequencyHz));
+        assertMetric(stats, "evm", twoPass(executions, TestExecution::getEvm));
+        assertMetric(stats, "acpr", twoPass(executions, TestExecution::getAcpr));
+        assertMetric(stats, "duration", twoPass(executions, e -> e.getDurationMs() != null ? e.getDurationMs().doubleValue() : null));
+
+        assertEquals(values(executions, TestExecution::getPowerLevel).stream().min(Double::compare).orElseThrow(), stats.get("powerLevelMin"));
+        assertEquals(values(executions, TestExecution::getPowerLevel).stream().max(Double::compare).orElseThrow(), stats.get("powerLevelMax"));
+        assertEquals(values(executions, TestExecution::getEvm).stream().max(Double::compare).orElseThrow(), stats.get("evmMax"));
+        assertEquals(values(executions, TestExecution::getAcpr).stream().max(Double::compare).orElseThrow(), stats.get("acprMax"));
+        List<Long> durations = values(executions, TestExecution::getDurationMs);
+        assertInstanceOf(Long.class, stats.get("durationMin"));
+        assertEquals(Collections.min(durations), stats.get("durationMin"));
+        assertEquals(Collections.max(durations), stats.get("durationMax"));
+
+        assertEquals(executions.stream().filter(e -> e.getStatus() != null)
+                .collect(Collectors.groupingBy(TestExecution::getStatus, Collectors.counting())), stats.get("statusDistribution"));
+        assertEquals(executions.stream().filter(e -> e.getTechnology() != null)
+                .collect(Collectors.groupingBy(TestExecution::getTechnology, Collectors.counting())), stats.get("technologyDistribution"));
+    }
+
+    private static void assertMetric(Map<String, Object> stats, String prefix, double[] expected) {
+        double tolerance = 1e-9 * Math.max(1.0, Math.abs(expected[0]));
+        assertEquals(expected[0], (double) stats.get(prefix + "Mean"), tolerance, prefix + "Mean");
+        // Both orders of summation round differently; near 3.5e9 a double resolves about 5e-7 Hz
+        assertEquals(expected[1], (double) stats.get(prefix + "StdDev"), 1e-6 * Math.max(1.0, expected[1]), prefix + "StdDev");
+    }
+
+    /**
+     * Mean and population standard deviation computed the old way: one pass for the mean, a second for the spread
+     */
+    private static double[] twoPass(List<TestExecution> executions, Function<TestExecution, Double> metric) {
+        List<Double> values = values(executions, metric);
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        double variance = values.size() < 2 ? 0.0
+                : values.stream().mapToDouble(v -> Math.pow(v - mean, 2)).average().orElse(0.0);
+        return new double[]{mean, Math.sqrt(variance)};
+    }
+
+    private static <T> List<T> values(List<TestExecution> executions, Function<TestExecution, T> metric) {
+        return executions.stream().map(metric).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Executions with realistic spreads around the carrier and occasional missing values in every field
+     */
+    private static List<TestExecution> executions(int count, double carrierHz) {
+        Random random = new Random(11);
+        List<TestExecution> executions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            executions.add(execution(
+                    i % 97 == 0 ? null : TECHNOLOGIES[random.nextInt(TECHNOLOGIES.length)],
+                    i % 89 == 0 ? null : STATUSES[random.nextInt(STATUSES.length)],
+                    i % 13 == 0 ? null : -7.5 + random.nextGaussian() * 0.4,
+                    i % 17 == 0 ? null : carrierHz + random.nextGaussian() * 2.0,
+                    i % 19 == 0 ? null : 1.5 + Math.abs(random.nextGaussian() * 0.3),
+                    i % 23 == 0 ? null : -45.0 + random.nextGaussian(),
+                    i % 29 == 0 ? null : 500L + random.nextInt(1500)));
+        }
+        return executions;
+    }
+
+    private static TestExecution execution(String technology, String status, Double powerLevel, Double frequencyHz,
+                                           Double evm, Double acpr, Long durationMs) {
+        TestExecution execution = new TestExecution();
+        execution.setTechnology(technology);
+        execution.setStatus(status);
+        execution.setPowerLevel(powerLevel);
+        execution.setFrequencyHz(frequencyHz);
+        execution.setEvm(evm);
+        execution.setAcpr(acpr);
+        execution.setDurationMs(durationMs);
+        return execution;
+    }
+}
@@ -0,0 +1,80 @@
+package com.radiotest.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The test executor in each radiotest.execution.mode: a bounded platform pool, or one virtual thread per test
+ * (Java 21+), falling back to the pool on runtimes without virtual threads
+ */
+class AsyncConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(AsyncConfig.class)
+            .withPropertyValues("spring.task.execution.pool.core-size=2", "spring.task.execution.pool.max-size=4",
+                    "spring.task.execution.pool.queue-capacity=8");
+
+    @Test
+    void poolModeUsesTheConfiguredBounds() {
+        contextRunner.withPropertyValues("radiotest.execution.mode=pool").run(context ->
+                assertBoundedPool(context.getBean("testTaskExecutor", Executor.class)));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualModeFallsBackToThePoolWithoutVirtualThreads() {
+        contextRunner.withPropertyValues("radiotest.execution.mode=virtual").run(context ->
+                assertBoundedPool(context.getBean("testTaskExecutor", Executor.class)));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualModeRunsEveryTestOnItsOwnVirtualThread() {
+        contextRunner.withPropertyValues("radiotest.execution.mode=virtual").run(context -> {
+            Executor executor = context.getBean("testTaskExecutor", Executor.class);
+            assertInstanceOf(SimpleAsyncTaskExecutor.class, executor);
+
+            // Far more tests than the pool would run at once, all blocked together, as on a busy bench
+            int tests = 1_000;
+            CountDownLatch started = new CountDownLatch(tests);
+            CountDownLatch release = new CountDownLatch(1);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            for (int i = 0; i < tests; i++) {
+                executor.execute(() -> {
+                    threads.add(Thread.currentThread());
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS), "tests were not all started concurrently");
+            release.countDown();
+            assertEquals(tests, threads.size());
+            for (Thread thread : threads) {
+                assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread)); // Java 21 API
+            }
+        });
+    }
+
+    private static void assertBoundedPool(Executor executor) {
+        ThreadPoolTaskExecutor pool = assertInstanceOf(ThreadPoolTaskExecutor.class, executor);
+        assertEquals(2, pool.getCorePoolSize());
+        assertEquals(4, pool.getMaxPoolSize());
+        assertEquals(8, pool.getQueueCapacity());
+        assertEquals("test-executor-", pool.getThreadNamePrefix());
+    }
+}
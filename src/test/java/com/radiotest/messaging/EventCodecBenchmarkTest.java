@@ -0,0 +1,65 @@
+package com.radiotest.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes per event and serialize + deserialize throughput of the binary format against the JSON it replaced
+ * (Spring Kafka's JsonSerializer / JsonDeserializer use this ObjectMapper). Events carry a 1000-sample trace,
+ * as a typical bench run does. Prints both and asserts the binary format is smaller and faster; throughput
+ * needs a quiet machine, so the test only runs with the benchmark profile ({@code mvn test -Pbenchmark}).
+ */
+@Tag("benchmark")
+class EventCodecBenchmarkTest {
+    private static final int SAMPLES = 1000;
+    private static final int WARMUP_EVENTS = 5_000;
+    private static final int TIMED_EVENTS = 10_000;
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    @Test
+    void binaryIsSmallerAndFasterThanJson() throws IOException {
+        ExecutionEvent event = EventCodecTest.executionEvent(SAMPLES);
+        byte[] binary = EventCodec.encode(event);
+        byte[] json = objectMapper.writeValueAsBytes(event);
+        assertEquals(event, EventCodec.decode(binary));
+        assertEquals(event, objectMapper.readValue(json, ExecutionEvent.class));
+
+        roundTrips(event, WARMUP_EVENTS, true);
+        roundTrips(event, WARMUP_EVENTS, false);
+        double binaryPerSecond = roundTrips(event, TIMED_EVENTS, true);
+        double jsonPerSecond = roundTrips(event, TIMED_EVENTS, false);
+
+        System.out.printf("Execution event with %d samples: binary %d bytes, %.0f events/s; JSON %d bytes, %.0f events/s%n",
+                SAMPLES, binary.length, binaryPerSecond, json.length, jsonPerSecond);
+        assertTrue(binary.length * 2 < json.length, "binary event is not under half the JSON size");
+        assertTrue(binaryPerSecond > jsonPerSecond, "binary round trip is not faster than JSON");
+    }
+
+    /**
+     * Serialize + deserialize round trips per second
+     */
+    private double roundTrips(ExecutionEvent event, int count, boolean binary) throws IOException {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            ExecutionEvent decoded;
+            if (binary) {
+                decoded = (ExecutionEvent) EventCodec.decode(EventCodec.encode(event));
+            } else {
+                decoded = objectMapper.readValue(objectMapper.writeValueAsBytes(event), ExecutionEvent.class);
+            }
+            checksum += decoded.getMeasurements().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals((long) count * SAMPLES, checksum);
+        return count / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,106 @@
+package com.radiotest.messaging;
+
+import com.radiotest.model.MeasurementTrace;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Binary event format: every field survives a round trip, null fields are omitted, and fields with tags
+ * the reader does not know (written by a newer producer) are skipped whatever their wire type
+ */
+class EventCodecTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0, 30, 123_456_789);
+
+    @Test
+    void executionEventRoundTrips() {
+        ExecutionEvent event = executionEvent(1000);
+        assertEquals(event, EventCodec.decode(EventCodec.encode(event)));
+    }
+
+    @Test
+    void suiteAndAlertEventsRoundTrip() {
+        SuiteEvent suite = new SuiteEvent("suite-42", "5G", 12, "STARTED");
+        assertEquals(suite, EventCodec.decode(EventCodec.encode(suite)));
+
+        AlertEvent alert = new AlertEvent(-3L, "suite-42", "TC-5G-001", "5G", "powerLevel", 17, -12.25, -7.5,
+                6.1, "cusum", "HIGH", "ABORTED", "Power drift – ±5 dB", START.minusYears(60), "bench-b");
+        assertEquals(alert, EventCodec.decode(EventCodec.encode(alert)));
+    }
+
+    @Test
+    void nullFieldsAreOmitted() {
+        byte[] encoded = EventCodec.encode(new ExecutionEvent());
+        assertArrayEquals(new byte[]{EventCodec.MAGIC, EventCodec.VERSION, EventCodec.TYPE_EXECUTION}, encoded);
+        assertEquals(new ExecutionEvent(), EventCodec.decode(encoded));
+    }
+
+    @Test
+    void unknownTagsAreSkipped() {
+        ExecutionEvent event = executionEvent(50);
+        byte[] encoded = EventCodec.encode(event);
+
+        // Fields a newer producer might add, one per wire type, before and after the known fields
+        ByteArrayOutputStream unknown = new ByteArrayOutputStream();
+        writeVarint(unknown, 40L << 3);
+        writeVarint(unknown, 300);
+        writeVarint(unknown, 41L << 3 | 1);
+        unknown.writeBytes(new byte[8]);
+        byte[] text = "added in a later version".getBytes(StandardCharsets.UTF_8);
+        writeVarint(unknown, 42L << 3 | 2);
+        writeVarint(unknown, text.length);
+        unknown.writeBytes(text);
+
+        ByteArrayOutputStream extended = new ByteArrayOutputStream();
+        extended.write(encoded, 0, 3);
+        extended.writeBytes(unknown.toByteArray());
+        extended.write(encoded, 3, encoded.length - 3);
+        extended.writeBytes(unknown.toByteArray());
+
+        assertEquals(event, EventCodec.decode(extended.toByteArray()));
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedData() {
+        byte[] encoded = EventCodec.encode(executionEvent(10));
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode("{\"executionId\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        byte[] newerVersion = encoded.clone();
+        newerVersion[1] = EventCodec.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(newerVersion));
+
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    /**
+     * Fully populated execution with a random-walk power trace, like a bench run
+     */
+    static ExecutionEvent executionEvent(int samples) {
+        Random random = new Random(7);
+        double[] trace = new double[samples];
+        double power = -7.5;
+        for (int i = 0; i < samples; i++) {
+            power += random.nextGaussian() * 0.05;
+            trace[i] = power;
+        }
+        return new ExecutionEvent(Long.MAX_VALUE - 1, "suite-42", "TC-LTE-007", "LTE output power étage 2", "LTE",
+                "FAILED", START, START.plusNanos(1_234_567_890L), 1234L, -7.51, 3.5e9, 1.87, -44.2,
+                "Power out of range", MeasurementTrace.wrap(trace), "bench-a", samples, samples);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,112 @@
+package com.radiotest.messaging;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Spill, probe and resubmit against an embedded broker. Topics are not auto-created, so sends to the
+ * executions topic fail (metadata times out) until the test creates it, which stands in for an outage.
+ */
+@EmbeddedKafka(partitions = 1, brokerProperties = "auto.create.topics.enable=false")
+class EventPublisherTest {
+    private static final String TOPIC = EventPublisher.EXECUTIONS_TOPIC;
+    private static final int EVENTS = 5;
+
+    private final EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private EventPublisher publisher;
+
+    EventPublisherTest(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+    }
+
+    @BeforeEach
+    void createPublisher() {
+        producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class,
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000));
+        publisher = new EventPublisher(new KafkaTemplate<>(producerFactory), true, 100, 100, "bench-test");
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        publisher.shutdown();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void spillsWhileUnavailableProbesOnceAndResubmitsInOrder() {
+        IntStream.range(0, EVENTS).forEach(i -> publisher.publish(TOPIC, "suite-" + i, suiteEvent(i)));
+
+        // The first send fails; the records queued behind it are spilled without another attempt
+        await().atMost(Duration.ofSeconds(10)).until(() -> spilled() == EVENTS);
+        assertEquals(1L, topicStatistics().get("failed"));
+
+        // A retry while the topic is still missing costs one probe, which goes back to the head of the spill
+        publisher.retrySpilled();
+        await().atMost(Duration.ofSeconds(10)).until(() -> (long) topicStatistics().get("failed") == 2);
+        assertEquals(EVENTS, spilled());
+
+        broker.addTopics(new NewTopic(TOPIC, 1, (short) 1));
+        publisher.retrySpilled();
+        await().atMost(Duration.ofSeconds(10)).until(() -> (long) topicStatistics().get("acknowledged") == EVENTS);
+        assertEquals(0, spilled());
+        assertEquals(0L, topicStatistics().get("dropped"));
+
+        assertEquals(IntStream.range(0, EVENTS).mapToObj(i -> "suite-" + i).toList(), consumeKeys());
+    }
+
+    private List<String> consumeKeys() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("publisher-test", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, Object> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new EventDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            List<String> keys = new ArrayList<>();
+            for (ConsumerRecord<String, Object> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), EVENTS)) {
+                assertEquals(record.key(), ((SuiteEvent) record.value()).getSuiteId());
+                keys.add(record.key());
+            }
+            return keys;
+        }
+    }
+
+    private int spilled() {
+        return (int) publisher.getStatistics().get("spilled");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> topicStatistics() {
+        Map<String, Object> topics = (Map<String, Object>) publisher.getStatistics().get("topics");
+        return (Map<String, Object>) topics.get(TOPIC);
+    }
+
+    private static SuiteEvent suiteEvent(int i) {
+        return new SuiteEvent("suite-" + i, "LTE", i, "STARTED");
+    }
+}
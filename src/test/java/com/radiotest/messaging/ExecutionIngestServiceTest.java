@@ -0,0 +1,121 @@
+package com.radiotest.messaging;
+
+import com.radiotest.framework.ExecutionCompletedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ingest through an embedded broker: an execution redelivered in the same batch or a later one is stored
+ * and announced once, and executions published by this instance itself are not ingested
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingest",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "radiotest.events.enabled=false",
+        "radiotest.events.source-id=bench-local",
+        "radiotest.ingest.enabled=true",
+        "radiotest.ingest.concurrency=1"
+})
+@EmbeddedKafka(partitions = 1, topics = EventPublisher.EXECUTIONS_TOPIC)
+class ExecutionIngestServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0, 30);
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private ExecutionIngestService ingestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IngestedEvents ingestedEvents;
+
+    @Test
+    void redeliveredExecutionsAreStoredAndAnnouncedOnce() {
+        send(event("bench-remote", 7L));
+        send(event("bench-remote", 7L));
+        send(event("bench-remote", 8L));
+        send(event("bench-local", 9L));
+        awaitProcessed(4);
+
+        // Redelivered after the first copy was committed, as after a consumer restart
+        send(event("bench-remote", 7L));
+        awaitProcessed(5);
+
+        Map<String, Object> stats = ingestService.getStatistics();
+        assertEquals(2L, stats.get("ingested"));
+        assertEquals(2L, stats.get("duplicates"));
+        assertEquals(1L, stats.get("ownEvents"));
+        assertEquals(List.of("bench-remote:7", "bench-remote:8"), jdbcTemplate.queryForList(
+                "SELECT execution_key FROM test_executions WHERE execution_key IS NOT NULL ORDER BY execution_key",
+                String.class));
+        assertEquals(List.of("bench-remote:7", "bench-remote:8"), ingestedEvents.keys.stream().sorted().toList());
+    }
+
+    private void send(ExecutionEvent event) {
+        kafkaTemplate.send(EventPublisher.EXECUTIONS_TOPIC, String.valueOf(event.getExecutionId()), event).join();
+    }
+
+    /**
+     * Wait until the listener has persisted or skipped this many records ("received" counts them before that)
+     */
+    private void awaitProcessed(long records) {
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            Map<String, Object> stats = ingestService.getStatistics();
+            return (long) stats.get("ingested") + (long) stats.get("duplicates") + (long) stats.get("ownEvents") >= records;
+        });
+    }
+
+    private static ExecutionEvent event(String source, long executionId) {
+        ExecutionEvent event = new ExecutionEvent();
+        event.setExecutionId(executionId);
+        event.setSource(source);
+        event.setSuiteId("suite-1");
+        event.setTestCaseId("TC-LTE-001");
+        event.setTechnology("LTE");
+        event.setStatus("PASSED");
+        event.setStartTime(START.plusSeconds(executionId));
+        event.setEndTime(START.plusSeconds(executionId + 1));
+        event.setDurationMs(1000L);
+        event.setPowerLevel(-7.5);
+        event.setMeasurements(List.of(-7.5, -7.4, -7.6));
+        return event;
+    }
+
+    @TestConfiguration
+    static class IngestedEventsConfig {
+        @Bean
+        IngestedEvents ingestedEvents() {
+            return new IngestedEvents();
+        }
+    }
+
+    static class IngestedEvents {
+        final List<String> keys = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onExecutionCompleted(ExecutionCompletedEvent event) {
+            if (event.isIngested()) {
+                keys.add(event.getExecution().getExecutionKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.radiotest.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency budgets for the execution access paths on a large table.
+ * Seeds an H2 database created by the Flyway migrations and switched to PostgreSQL mode (after the
+ * migrations, whose BLOB columns that mode does not parse), then times each repository query (median of
+ * repeated runs after a warm-up). H2 result reuse is off so every run executes. A query that stops using its
+ * index scans every row, which takes several times the budget at this size. Wall-clock budgets need a quiet
+ * machine, so the test is tagged and only runs with the benchmark profile ({@code mvn test -Pbenchmark}).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;OPTIMIZE_REUSE_RESULTS=0",
+        "radiotest.events.enabled=false",
+        "radiotest.rollups.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Tag("benchmark")
+class TestExecutionQueryBenchmarkTest {
+    private static final int EXECUTIONS = 500_000;
+    private static final int TEST_CASES = 500;
+    private static final String[] TECHNOLOGIES = {"5G", "LTE", "W-CDMA", "GSM"};
+    private static final String[] STATUSES = {"PASSED", "PASSED", "PASSED", "FAILED", "ERROR"};
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final int WARMUP_RUNS = 50;
+    private static final int TIMED_RUNS = 51;
+    private static final long PAGE_BUDGET_MS = 20;
+
+    @Autowired
+    private TestExecutionRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private double fullScanMs;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("SET MODE PostgreSQL"); // database-wide, so every pooled connection sees it
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= EXECUTIONS; i++) {
+            int testCase = random.nextInt(TEST_CASES);
+            LocalDateTime startTime = START.plusSeconds(i * 30L); // ~6 months, one execution every 30 s
+            long durationMs = 500 + random.nextInt(1000);
+            batch.add(new Object[]{
+                    (long) i, "TC-" + testCase, "Test case " + testCase, TECHNOLOGIES[testCase % TECHNOLOGIES.length],
+                    STATUSES[random.nextInt(STATUSES.length)], Timestamp.valueOf(startTime),
+                    Timestamp.valueOf(startTime.plusNanos(TimeUnit.MILLISECONDS.toNanos(durationMs))), durationMs,
+                    -7.5 + random.nextGaussian() * 0.5, 3.5e9, 1.5 + random.nextGaussian() * 0.2,
+                    -45 + random.nextGaussian()});
+            if (batch.size() == 5_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        jdbcTemplate.execute("ANALYZE");
+        fullScanMs = medianMs(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM test_executions WHERE test_case_name = ?", Long.class, "none"));
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO test_executions (id, test_case_id, test_case_name, technology, status, " +
+                "start_time, end_time, duration_ms, power_level, frequency_hz, evm, acpr) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    @Test
+    void firstListPage() {
+        assertWithinBudget("findListItems", PAGE_BUDGET_MS, () -> repository.findListItems(PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void listPageAfterCursor() {
+        LocalDateTime cursorTime = START.plusDays(90);
+        assertWithinBudget("findListItemsBefore", PAGE_BUDGET_MS,
+                () -> repository.findListItemsBefore(cursorTime, Long.MAX_VALUE, PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void listPageByStatus() {
+        assertWithinBudget("findListItemsByStatus", PAGE_BUDGET_MS,
+                () -> repository.findListItemsByStatus("FAILED", PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void listPageByStatusAfterCursor() {
+        LocalDateTime cursorTime = START.plusDays(90);
+        assertWithinBudget("findListItemsByStatusBefore", PAGE_BUDGET_MS,
+                () -> repository.findListItemsByStatusBefore("FAILED", cursorTime, Long.MAX_VALUE, PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void listPageByTechnology() {
+        assertWithinBudget("findListItemsByTechnology", PAGE_BUDGET_MS,
+                () -> repository.findListItemsByTechnology("LTE", PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void listPageByStatusAndTechnologyAfterCursor() {
+        LocalDateTime cursorTime = START.plusDays(90);
+        assertWithinBudget("findListItemsByStatusAndTechnologyBefore", PAGE_BUDGET_MS,
+                () -> repository.findListItemsByStatusAndTechnologyBefore("ERROR", "GSM", cursorTime, Long.MAX_VALUE,
+                        PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void countByStatus() {
+        assertWithinBudget("countByStatus", PAGE_BUDGET_MS * 5, () -> repository.countByStatus("ERROR"));
+    }
+
+    @Test
+    void deepReplayPage() {
+        assertWithinBudget("findMetricsAfter", PAGE_BUDGET_MS,
+                () -> repository.findMetricsAfter(EXECUTIONS - 2_000L, PageRequest.of(0, 1000)));
+    }
+
+    @Test
+    void recentOutcomesOfTestCase() {
+        assertWithinBudget("findRecentOutcomes", PAGE_BUDGET_MS,
+                () -> repository.findRecentOutcomes("TC-7", PageRequest.of(0, 100)));
+    }
+
+    @Test
+    void recentOutcomesOfTestCaseSince() {
+        LocalDateTime since = START.plusDays(60);
+        assertWithinBudget("findRecentOutcomesSince", PAGE_BUDGET_MS,
+                () -> repository.findRecentOutcomesSince("TC-7", since, PageRequest.of(0, 100)));
+    }
+
+    @Test
+    void recentExecutionsOfTestCase() {
+        assertWithinBudget("findRecentExecutionsByTestCaseId", PAGE_BUDGET_MS,
+                () -> repository.findRecentExecutionsByTestCaseId("TC-7", PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void anomalyCandidatesOfTestCaseInWindow() {
+        LocalDateTime from = START.plusDays(30);
+        LocalDateTime to = from.plusDays(7);
+        assertWithinBudget("findMetricsOutsideBounds", PAGE_BUDGET_MS,
+                () -> repository.findMetricsOutsideBounds("TC-7", from, to,
+                        -9.0, -6.0, 0.0, 2.0, -48.0, -42.0, 0L, 1400L));
+    }
+
+    @Test
+    void metricsOfOneHour() {
+        LocalDateTime from = START.plusDays(45);
+        assertWithinBudget("findMetricsByStartTimeRange", PAGE_BUDGET_MS,
+                () -> repository.findMetricsByStartTimeRange(from, from.plusHours(1)));
+    }
+
+    @Test
+    void reportRowsOfOneHour() {
+        LocalDateTime from = START.plusDays(45);
+        assertWithinBudget("streamReportRows", PAGE_BUDGET_MS, () -> transactionTemplate.execute(status -> {
+            try (Stream<ExecutionReportRow> rows = repository.streamReportRows(from, from.plusHours(1))) {
+                return rows.count();
+            }
+        }));
+    }
+
+    /**
+     * Median latency of the query after a warm-up against its budget; the result must not be empty,
+     * or the timing says nothing
+     */
+    private void assertWithinBudget(String query, long budgetMs, Supplier<?> execution) {
+        Object result = execution.get();
+        assertFalse(result instanceof List<?> list && list.isEmpty(), query + " returned no rows");
+        double medianMs = medianMs(execution);
+        assertTrue(medianMs <= budgetMs, String.format("%s took %.2f ms (median of %d), budget %d ms; a full scan takes %.2f ms",
+                query, medianMs, TIMED_RUNS, budgetMs, fullScanMs));
+    }
+
+    private static double medianMs(Supplier<?> execution) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            execution.get();
+        }
+        long[] nanos = new long[TIMED_RUNS];
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            execution.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[TIMED_RUNS / 2] / 1e6;
+    }
+}
@@ -0,0 +1,86 @@
+package com.radiotest.service;
+
+import com.radiotest.analytics.ExecutionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Startup reconciliation of the rollups against raw executions: executions whose rollups were never
+ * written (no backfill yet, an interrupted backfill, or deltas lost before a flush) are added exactly once
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollups",
+        "radiotest.events.enabled=false",
+        "radiotest.rollups.flush-interval-ms=600000"
+})
+class ExecutionRollupServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0, 30);
+
+    @Autowired
+    private ExecutionRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM execution_rollups");
+        jdbcTemplate.update("DELETE FROM test_executions");
+    }
+
+    @Test
+    void backfillAddsEveryCompletedExecutionOnce() {
+        insert(1, 300, "PASSED");
+        insert(301, 1, "RUNNING");
+
+        rollupService.backfill();
+        assertEquals(300, aggregate().getCount());
+        assertEquals(1, notRolledUp());
+
+        rollupService.backfill();
+        assertEquals(300, aggregate().getCount());
+    }
+
+    @Test
+    void backfillRecoversExecutionsWhoseDeltasWereLost() {
+        insert(1, 200, "PASSED");
+        rollupService.backfill();
+
+        // Completed and committed, but the process stopped before their rollup deltas were flushed
+        insert(201, 40, "FAILED");
+
+        rollupService.backfill();
+        ExecutionStatistics statistics = aggregate();
+        assertEquals(240, statistics.getCount());
+        assertEquals(40, statistics.getStatusCount("FAILED"));
+        assertEquals(0, notRolledUp());
+    }
+
+    private ExecutionStatistics aggregate() {
+        return rollupService.aggregate(START.minusDays(1), START.plusDays(2));
+    }
+
+    private long notRolledUp() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_executions WHERE rolled_up = FALSE", Long.class);
+    }
+
+    private void insert(long firstId, int count, String status) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            LocalDateTime startTime = START.plusMinutes(id * 7); // spread over minute, hour and day buckets
+            rows.add(new Object[]{id, "TC-" + id % 5, "LTE", status, Timestamp.valueOf(startTime), 500L + id, -7.5});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO test_executions (id, test_case_id, technology, status, start_time, " +
+                "duration_ms, power_level) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}